@@ -1,8 +1,13 @@
 package com.assignmentpoint.config;
 
+import com.assignmentpoint.security.CalibratedPasswordEncoder;
 import com.assignmentpoint.security.JwtAuthenticationFilter;
 import com.assignmentpoint.security.JwtTokenProvider;
+import com.assignmentpoint.security.RateLimitFilter;
+import com.assignmentpoint.security.RequestRateLimiter;
 import com.assignmentpoint.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,8 +15,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -32,8 +35,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CalibratedPasswordEncoder passwordEncoder(@Value("${auth.bcrypt.target-ms:250}") long targetMillis) {
+        return CalibratedPasswordEncoder.calibrate(targetMillis);
     }
 
     @Bean
@@ -49,7 +52,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RequestRateLimiter rateLimiter,
+                                                   ObjectMapper objectMapper) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
@@ -57,9 +61,16 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST, "/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // STOMP sessions authenticate with the JWT in the CONNECT frame
+                        .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/exports/**").hasRole("ADMIN")
+                        .requestMatchers("/metrics/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/users/stats/rebuild").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                // Not a bean, so the servlet container does not register it a second time
+                .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -3,6 +3,7 @@ package com.assignmentpoint.controller;
 import com.assignmentpoint.dto.LoginRequest;
 import com.assignmentpoint.dto.RegisterRequest;
 import com.assignmentpoint.dto.AuthResponse;
+import com.assignmentpoint.security.LoginExecutor;
 import com.assignmentpoint.service.AuthService;
 import com.assignmentpoint.util.ApiResponse;
 import jakarta.validation.Valid;
@@ -11,12 +12,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginExecutor loginExecutor;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
@@ -26,8 +30,8 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response));
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest request) {
+        return loginExecutor.submit(() -> authService.login(request))
+                .thenApply(response -> ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response)));
     }
 }
@@ -6,12 +6,14 @@ import com.assignmentpoint.entity.Customer;
 import com.assignmentpoint.entity.Writer;
 import com.assignmentpoint.exception.UnauthorizedException;
 import com.assignmentpoint.repository.WriterRepository;
+import com.assignmentpoint.security.AuthenticatedUser;
 import com.assignmentpoint.service.BidService;
 import com.assignmentpoint.util.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -32,8 +34,14 @@ public class BidController {
                         "Writer profile not found for user with ID: " + userId));
     }
     @PostMapping
-    public ResponseEntity<ApiResponse<BidDTO>> submitBid(@RequestBody CreateBidRequest request) {
-        BidDTO bid = bidService.submitBid(request);
+    public ResponseEntity<ApiResponse<BidDTO>> submitBid(
+            @RequestBody CreateBidRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Writers bid as themselves; otherwise the request's writerId is a user id to resolve
+        Long writerId = principal.writerId() != null
+                ? principal.writerId()
+                : getWriterIdByUserId(request.getWriterId());
+        BidDTO bid = bidService.submitBid(writerId, request);
         return ResponseEntity.ok(ApiResponse.success("Bid submitted successfully", bid));
     }
     
@@ -44,8 +52,12 @@ public class BidController {
     }
     
     @GetMapping("/writer/{writerId}")
-    public ResponseEntity<ApiResponse<List<BidDTO>>> getBidsByWriter(@PathVariable Long writerId) {
-        Long writerId1 = getWriterIdByUserId(writerId);
+    public ResponseEntity<ApiResponse<List<BidDTO>>> getBidsByWriter(
+            @PathVariable Long writerId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long writerId1 = writerId.equals(principal.userId()) && principal.writerId() != null
+                ? principal.writerId()
+                : getWriterIdByUserId(writerId);
         List<BidDTO> bids = bidService.getBidsByWriter(writerId1);
         return ResponseEntity.ok(ApiResponse.success("Writer bids retrieved", bids));
     }
@@ -0,0 +1,80 @@
+package com.assignmentpoint.controller;
+
+import com.assignmentpoint.dto.ChatMessageRequest;
+import com.assignmentpoint.dto.CreateMessageRequest;
+import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.exception.ConflictException;
+import com.assignmentpoint.exception.ResourceNotFoundException;
+import com.assignmentpoint.security.AuthenticatedUser;
+import com.assignmentpoint.service.MessageService;
+import com.assignmentpoint.util.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.FieldError;
+
+import java.security.Principal;
+
+/**
+ * STOMP counterpart of MessageController. Results are not returned to the sender
+ * directly; they arrive on /topic/orders/{orderId} like everyone else's. Failures go
+ * back to the sending session only, on /user/queue/errors.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class ChatController {
+
+    private static final String ERROR_QUEUE = "/queue/errors";
+
+    private final MessageService messageService;
+
+    @MessageMapping("/orders/{orderId}/messages")
+    public void sendMessage(@DestinationVariable Long orderId,
+                            @Valid @Payload ChatMessageRequest request,
+                            Principal principal) {
+        messageService.sendMessage(CreateMessageRequest.builder()
+                .orderId(orderId)
+                .senderId(userIdOf(principal))
+                .receiverId(request.getReceiverId())
+                .messageText(request.getMessageText())
+                .build());
+    }
+
+    @MessageMapping("/messages/{messageId}/read")
+    public void markMessageAsRead(@DestinationVariable Long messageId, Principal principal) {
+        messageService.markMessageAsRead(messageId, userIdOf(principal));
+    }
+
+    @MessageExceptionHandler(MethodArgumentNotValidException.class)
+    @SendToUser(destinations = ERROR_QUEUE, broadcast = false)
+    public ApiResponse<Void> handleValidationErrors(MethodArgumentNotValidException ex) {
+        FieldError error = ex.getBindingResult() != null ? ex.getBindingResult().getFieldError() : null;
+        return ApiResponse.error(error != null ? error.getDefaultMessage() : "Invalid message");
+    }
+
+    @MessageExceptionHandler({ResourceNotFoundException.class, BadRequestException.class, ConflictException.class})
+    @SendToUser(destinations = ERROR_QUEUE, broadcast = false)
+    public ApiResponse<Void> handleRejected(RuntimeException ex) {
+        return ApiResponse.error(ex.getMessage());
+    }
+
+    @MessageExceptionHandler(Exception.class)
+    @SendToUser(destinations = ERROR_QUEUE, broadcast = false)
+    public ApiResponse<Void> handleUnexpected(Exception ex) {
+        log.error("Failed to handle chat frame", ex);
+        return ApiResponse.error("An unexpected error occurred");
+    }
+
+    private Long userIdOf(Principal principal) {
+        return ((AuthenticatedUser) ((Authentication) principal).getPrincipal()).userId();
+    }
+}
@@ -0,0 +1,73 @@
+package com.assignmentpoint.controller;
+
+import com.assignmentpoint.dto.CreateUploadSessionRequest;
+import com.assignmentpoint.dto.OrderFileDTO;
+import com.assignmentpoint.dto.UploadSessionDTO;
+import com.assignmentpoint.security.AuthenticatedUser;
+import com.assignmentpoint.service.ChunkedUploadService;
+import com.assignmentpoint.util.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable uploads for large files: each request carries one chunk, so a dropped
+ * connection costs one chunk rather than the whole file.
+ */
+@RestController
+@RequestMapping("/files/uploads")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> createSession(
+            @Valid @RequestBody CreateUploadSessionRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        UploadSessionDTO session = chunkedUploadService.createSession(principal.userId(), request);
+        return ResponseEntity.ok(ApiResponse.success("Upload session created", session));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> getSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        UploadSessionDTO session = chunkedUploadService.getSession(uploadId, principal.userId());
+        return ResponseEntity.ok(ApiResponse.success("Upload session retrieved", session));
+    }
+
+    @PutMapping("/{uploadId}/chunks/{index}")
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> putChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-Sha256", required = false) String checksum,
+            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        UploadSessionDTO session = chunkedUploadService.putChunk(uploadId, index, principal.userId(),
+                checksum, request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Chunk stored", session));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<OrderFileDTO>> complete(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        OrderFileDTO orderFile = chunkedUploadService.complete(uploadId, principal.userId());
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", orderFile));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abort(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        chunkedUploadService.abort(uploadId, principal.userId());
+        return ResponseEntity.ok(ApiResponse.success("Upload session cancelled", null));
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignmentpoint.controller;
+
+import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.service.ExportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exports are streamed on their own bounded pool under their own timeout, since a
+ * large table can take minutes; the global async timeout and executor are untouched.
+ */
+@RestController
+@RequestMapping("/exports")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Value("${exports.request-timeout-ms:1800000}")
+    private long requestTimeoutMs;
+
+    @Value("${exports.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private StreamingTaskPool exportPool;
+
+    @PostConstruct
+    void init() {
+        exportPool = new StreamingTaskPool("export", maxConcurrent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        exportPool.shutdown();
+    }
+
+    @GetMapping("/orders")
+    public WebAsyncTask<Void> exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                                           HttpServletResponse response) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return streaming(response, "orders", exportFormat, exportService.exportOrders(exportFormat));
+    }
+
+    @GetMapping("/bids")
+    public WebAsyncTask<Void> exportBids(@RequestParam(defaultValue = "ndjson") String format,
+                                         HttpServletResponse response) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return streaming(response, "bids", exportFormat, exportService.exportBids(exportFormat));
+    }
+
+    @GetMapping("/transactions")
+    public WebAsyncTask<Void> exportTransactions(@RequestParam(defaultValue = "ndjson") String format,
+                                                 HttpServletResponse response) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return streaming(response, "transactions", exportFormat, exportService.exportTransactions(exportFormat));
+    }
+
+    private ExportService.ExportFormat parseFormat(String format) {
+        try {
+            return ExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+    }
+
+    private WebAsyncTask<Void> streaming(HttpServletResponse response, String name,
+                                         ExportService.ExportFormat format, StreamingResponseBody body) {
+        return exportPool.submit(requestTimeoutMs, () -> {
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
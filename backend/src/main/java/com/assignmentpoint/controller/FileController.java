@@ -1,22 +1,40 @@
 package com.assignmentpoint.controller;
 
 import com.assignmentpoint.dto.OrderFileDTO;
+import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.exception.PayloadTooLargeException;
+import com.assignmentpoint.service.FileBundleService;
+import com.assignmentpoint.service.FileDownloadService;
 import com.assignmentpoint.service.FileStorageService;
 import com.assignmentpoint.service.OrderFileService;
-import com.assignmentpoint.security.JwtTokenProvider;
+import com.assignmentpoint.security.AuthenticatedUser;
 import com.assignmentpoint.util.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/files")
 @CrossOrigin(origins = "*")
@@ -25,52 +43,192 @@ public class FileController {
 
     private final OrderFileService orderFileService;
     private final FileStorageService fileStorageService;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final FileDownloadService fileDownloadService;
+    private final FileBundleService fileBundleService;
 
+    @Value("${file.bundle.request-timeout-ms:1800000}")
+    private long bundleTimeoutMs;
+
+    @Value("${file.bundle.max-concurrent:4}")
+    private int bundleMaxConcurrent;
+
+    private StreamingTaskPool bundlePool;
+
+    /** Allowance for part headers, boundaries and the small form fields. */
+    private static final long MULTIPART_OVERHEAD = 64 * 1024;
+    private static final int MAX_FIELD_BYTES = 1024;
+    /** Headers of one part; leaves room for a long UTF-8 filename. */
+    private static final int MAX_PART_HEADER_BYTES = 2048;
+    /** The file plus the orderId and category fields, with a little slack. */
+    private static final int MAX_PARTS = 8;
+
+    @PostConstruct
+    void init() {
+        bundlePool = new StreamingTaskPool("bundle", bundleMaxConcurrent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bundlePool.shutdown();
+    }
+
+    /**
+     * Parses the multipart body as a stream instead of letting a resolver buffer it,
+     * so the file part is written to storage while it is still arriving. orderId and
+     * category may be sent as query parameters or as form fields on either side of
+     * the file part.
+     */
     @PostMapping("/upload")
     public ResponseEntity<ApiResponse<OrderFileDTO>> uploadFile(
-            @RequestParam Long orderId,
-            @RequestParam(required = false) String category,
-            @RequestParam("file") MultipartFile file,
-            @RequestHeader("Authorization") String token) {
+            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new BadRequestException("Expected a multipart/form-data upload");
+        }
+        long maxFileSize = fileStorageService.getMaxFileSize();
+        if (request.getContentLengthLong() > maxFileSize + MULTIPART_OVERHEAD) {
+            throw new PayloadTooLargeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+
+        Long orderId = parseOrderId(request.getParameter("orderId"));
+        String category = request.getParameter("category");
+        FileStorageService.StagedFile staged = null;
+        String originalFilename = null;
+        String contentType = null;
 
-        String userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""));
-        Long userIdLong = Long.parseLong(userId);
-        String fileCategory = category != null ? category : "reference_materials";
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setMaxSize(maxFileSize + MULTIPART_OVERHEAD);
+        upload.setMaxPartHeaderSize(MAX_PART_HEADER_BYTES);
+        upload.setMaxFileCount(MAX_PARTS);
+        try {
+            FileItemInputIterator parts = upload.getItemIterator(request);
+            int partCount = 0;
+            while (parts.hasNext()) {
+                // The streaming iterator does not apply maxFileCount itself
+                if (++partCount > MAX_PARTS) {
+                    throw new BadRequestException("Too many parts in upload");
+                }
+                FileItemInput part = parts.next();
+                try (InputStream in = part.getInputStream()) {
+                    if (part.isFormField()) {
+                        String value = new String(in.readNBytes(MAX_FIELD_BYTES), StandardCharsets.UTF_8);
+                        if ("orderId".equals(part.getFieldName())) {
+                            orderId = parseOrderId(value);
+                        } else if ("category".equals(part.getFieldName())) {
+                            category = value;
+                        }
+                    } else if ("file".equals(part.getFieldName()) && staged == null) {
+                        // Reject an unknown order before reading the file, when the id came first
+                        if (orderId != null) {
+                            orderFileService.requireOrder(orderId);
+                        }
+                        originalFilename = part.getName();
+                        contentType = part.getContentType();
+                        staged = fileStorageService.stage(in, originalFilename);
+                    }
+                }
+            }
+        } catch (FileUploadSizeException e) {
+            discard(staged);
+            throw new PayloadTooLargeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        } catch (IOException e) {
+            discard(staged);
+            throw new BadRequestException("Failed to read upload: " + e.getMessage());
+        } catch (RuntimeException e) {
+            discard(staged);
+            throw e;
+        }
 
-        System.out.println("[v0] FileController: Uploading file for order: " + orderId + ", category: " + fileCategory);
-        OrderFileDTO orderFile = orderFileService.uploadFile(orderId, userIdLong, file, fileCategory);
+        if (staged == null) {
+            throw new BadRequestException("No file part in upload");
+        }
+        if (orderId == null) {
+            discard(staged);
+            throw new BadRequestException("orderId is required");
+        }
+        String fileCategory = category != null && !category.isBlank() ? category : "reference_materials";
+
+        log.debug("Uploaded file for order {}, category: {}, size: {}", orderId, fileCategory, staged.size());
+        OrderFileDTO orderFile;
+        try {
+            orderFile = orderFileService.uploadFile(orderId, principal.userId(), staged,
+                    originalFilename, contentType, fileCategory);
+        } catch (RuntimeException e) {
+            discard(staged);
+            throw e;
+        }
         return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", orderFile));
     }
 
+    private Long parseOrderId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid orderId");
+        }
+    }
+
+    private void discard(FileStorageService.StagedFile staged) {
+        if (staged != null) {
+            fileStorageService.discard(staged);
+        }
+    }
+
     @GetMapping("/order/{orderId}")
     public ResponseEntity<ApiResponse<List<OrderFileDTO>>> getOrderFiles(@PathVariable Long orderId) {
         List<OrderFileDTO> files = orderFileService.getOrderFiles(orderId);
         return ResponseEntity.ok(ApiResponse.success("Order files retrieved", files));
     }
 
+    /**
+     * Every file on the order as one ZIP, written to the client as it is built, under
+     * its own async timeout and on its own bounded pool; a 429 when that is full.
+     */
+    @GetMapping("/order/{orderId}/bundle")
+    public WebAsyncTask<Void> downloadBundle(@PathVariable Long orderId, HttpServletResponse response) {
+        FileBundleService.Bundle bundle = fileBundleService.prepare(orderId);
+        return bundlePool.submit(bundleTimeoutMs, () -> {
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(bundle.fileName(), StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+            bundle.body().writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    /**
+     * Supports Range, If-Range, If-None-Match and If-Modified-Since, so interrupted
+     * downloads can resume and unchanged files come back as 304.
+     */
     @GetMapping("/{filename}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
-        try {
-            Path filePath = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+    public void downloadFile(@PathVariable String filename,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        fileDownloadService.serve(orderFileService.resolveDownload(filename), request, response);
+    }
+
+    @DeleteMapping("/{fileId}")
+    public ResponseEntity<ApiResponse<Void>> deleteFile(
+            @PathVariable Long fileId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        orderFileService.deleteFile(fileId, principal.userId(), "ADMIN".equals(principal.role()));
+        return ResponseEntity.ok(ApiResponse.success("File deleted", null));
     }
 
     @PostMapping("/{fileId}/mark-seen")
     public ResponseEntity<ApiResponse<Void>> markFileAsSeen(
             @PathVariable Long fileId,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        String userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""));
-        Long userIdLong = Long.parseLong(userId);
+        Long userIdLong = principal.userId();
 
         orderFileService.markFileAsSeen(fileId, userIdLong);
         return ResponseEntity.ok(ApiResponse.success("File marked as seen", null));
@@ -2,15 +2,16 @@ package com.assignmentpoint.controller;
 
 import com.assignmentpoint.dto.CreateMessageRequest;
 import com.assignmentpoint.dto.MessageDTO;
+import com.assignmentpoint.dto.MessageFeedDTO;
+import com.assignmentpoint.dto.UnreadCountsDTO;
+import com.assignmentpoint.security.AuthenticatedUser;
 import com.assignmentpoint.service.MessageService;
 import com.assignmentpoint.util.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -30,28 +31,44 @@ public class MessageController {
     }
 
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<ApiResponse<Page<MessageDTO>>> getOrderMessages(
+    public ResponseEntity<ApiResponse<MessageFeedDTO>> getOrderMessages(
             @PathVariable Long orderId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<MessageDTO> messages = messageService.getOrderMessages(orderId, pageable);
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        MessageFeedDTO messages = messageService.getOrderMessages(orderId, cursor, size);
         return ResponseEntity.ok(new ApiResponse<>(true, "Messages retrieved successfully", messages));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<Page<MessageDTO>>> getUserMessages(
+    public ResponseEntity<ApiResponse<MessageFeedDTO>> getUserMessages(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<MessageDTO> messages = messageService.getUserMessages(userId, pageable);
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        MessageFeedDTO messages = messageService.getUserMessages(userId, cursor, size);
         return ResponseEntity.ok(new ApiResponse<>(true, "User messages retrieved successfully", messages));
     }
 
     @PutMapping("/{messageId}/mark-read")
-    public ResponseEntity<ApiResponse<Void>> markMessageAsRead(@PathVariable Long messageId) {
-        messageService.markMessageAsRead(messageId);
+    public ResponseEntity<ApiResponse<Void>> markMessageAsRead(
+            @PathVariable Long messageId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        messageService.markMessageAsRead(messageId, principal.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Message marked as read", null));
     }
+
+    @PutMapping("/order/{orderId}/mark-read")
+    public ResponseEntity<ApiResponse<Integer>> markOrderMessagesAsRead(
+            @PathVariable Long orderId,
+            @RequestParam Long upTo,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        int updated = messageService.markOrderMessagesReadUpTo(orderId, upTo, principal.userId());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Messages marked as read", updated));
+    }
+
+    @GetMapping("/unread-counts")
+    public ResponseEntity<ApiResponse<UnreadCountsDTO>> getUnreadCounts(
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        UnreadCountsDTO counts = messageService.getUnreadCounts(principal.userId());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Unread counts retrieved", counts));
+    }
 }
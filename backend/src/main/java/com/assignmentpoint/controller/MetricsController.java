@@ -0,0 +1,56 @@
+package com.assignmentpoint.controller;
+
+import com.assignmentpoint.security.CalibratedPasswordEncoder;
+import com.assignmentpoint.security.LoginExecutor;
+import com.assignmentpoint.security.RequestRateLimiter;
+import com.assignmentpoint.security.UserDetailsCache;
+import com.assignmentpoint.service.StorageMigrationJob;
+import com.assignmentpoint.util.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/metrics")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final UserDetailsCache userDetailsCache;
+    private final LoginExecutor loginExecutor;
+    private final CalibratedPasswordEncoder passwordEncoder;
+    private final RequestRateLimiter rateLimiter;
+    private final StorageMigrationJob storageMigrationJob;
+
+    @GetMapping("/auth-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAuthCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("Auth cache stats retrieved", userDetailsCache.stats()));
+    }
+
+    @GetMapping("/login")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLoginStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executor", loginExecutor.stats());
+        stats.put("passwordHashing", passwordEncoder.stats());
+        return ResponseEntity.ok(ApiResponse.success("Login stats retrieved", stats));
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRateLimitStats() {
+        return ResponseEntity.ok(ApiResponse.success("Rate limit stats retrieved", rateLimiter.stats()));
+    }
+
+    @GetMapping("/storage")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStorageStats() {
+        return ResponseEntity.ok(ApiResponse.success("Storage stats retrieved", storageMigrationJob.stats()));
+    }
+
+    @PostMapping("/storage/migrate")
+    public ResponseEntity<ApiResponse<Boolean>> triggerStorageMigration() {
+        boolean started = storageMigrationJob.trigger();
+        return ResponseEntity.ok(ApiResponse.success(started ? "Storage migration started" : "Storage migration already running", started));
+    }
+}
@@ -2,18 +2,24 @@ package com.assignmentpoint.controller;
 
 import com.assignmentpoint.dto.CreateOrderRequest;
 import com.assignmentpoint.dto.OrderDTO;
+import com.assignmentpoint.dto.OrderFeedDTO;
 import com.assignmentpoint.entity.Customer;
 import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.User;
 import com.assignmentpoint.exception.UnauthorizedException;
 import com.assignmentpoint.repository.CustomerRepository;
 import com.assignmentpoint.service.OrderService;
-import com.assignmentpoint.security.JwtTokenProvider;
+import com.assignmentpoint.security.AuthenticatedUser;
+import com.assignmentpoint.security.ProfileId;
 import com.assignmentpoint.util.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,18 +29,12 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-    private final JwtTokenProvider jwtTokenProvider;
     private final CustomerRepository customerRepository;
 
     @PostMapping
     public ResponseEntity<ApiResponse<OrderDTO>> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
-            @RequestHeader("Authorization") String token) {
-
-        Long userId = Long.parseLong(jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", "")));
-        Long customerId = customerRepository.findByUserId(userId)
-                .map(Customer::getId)
-                .orElseThrow(() -> new UnauthorizedException("Customer profile not found for this user"));
+            @ProfileId(User.UserRole.CUSTOMER) Long customerId) {
 
         System.out.println("[v0] OrderController: Creating order for customerId: " + customerId);
         System.out.println("[v0] OrderController: Request - title: " + request.getTitle());
@@ -67,16 +67,29 @@ public class OrderController {
     }
 
     @GetMapping("/available")
-    public ResponseEntity<ApiResponse<List<OrderDTO>>> getAvailableOrders() {
-        List<OrderDTO> orders = orderService.getAvailableOrders();
-        return ResponseEntity.ok(ApiResponse.success("Available orders retrieved", orders));
+    public ResponseEntity<ApiResponse<OrderFeedDTO>> getAvailableOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String educationLevel,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineTo) {
+        OrderFeedDTO feed = orderService.getAvailableOrders(
+                cursor, size, subject, educationLevel, type, deadlineFrom, deadlineTo);
+        return ResponseEntity.ok(ApiResponse.success("Available orders retrieved", feed));
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<ApiResponse<List<OrderDTO>>> getOrdersByCustomer(@PathVariable Long customerId) {
-        Long customerId1 = customerRepository.findByUserId(customerId)
-                .map(Customer::getId)
-                .orElseThrow(() -> new UnauthorizedException("Customer profile not found for this user"));
+    public ResponseEntity<ApiResponse<List<OrderDTO>>> getOrdersByCustomer(
+            @PathVariable Long customerId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        // The path carries the user id; a customer asking for their own orders already has the profile id
+        Long customerId1 = customerId.equals(principal.userId()) && principal.customerId() != null
+                ? principal.customerId()
+                : customerRepository.findByUserId(customerId)
+                        .map(Customer::getId)
+                        .orElseThrow(() -> new UnauthorizedException("Customer profile not found for this user"));
 
         List<OrderDTO> orders = orderService.getOrdersByCustomer(customerId1);
         return ResponseEntity.ok(ApiResponse.success("Customer orders retrieved", orders));
@@ -4,10 +4,8 @@ import com.assignmentpoint.dto.CreateDepositRequest;
 import com.assignmentpoint.dto.DepositResponse;
 import com.assignmentpoint.dto.PaymentDTO;
 import com.assignmentpoint.dto.WalletDTO;
-import com.assignmentpoint.entity.Customer;
-import com.assignmentpoint.exception.UnauthorizedException;
-import com.assignmentpoint.repository.CustomerRepository;
-import com.assignmentpoint.security.JwtTokenProvider;
+import com.assignmentpoint.entity.User;
+import com.assignmentpoint.security.ProfileId;
 import com.assignmentpoint.service.PaymentService;
 import com.assignmentpoint.util.ApiResponse;
 import com.stripe.exception.StripeException;
@@ -24,24 +22,11 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final CustomerRepository customerRepository;
 
-    private Long getCustomerIdFromToken(String token) {
-        String userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""));
-        Long customerId = customerRepository.findByUserId(Long.parseLong(userId))
-                .map(Customer::getId)
-                .orElseThrow(() -> new UnauthorizedException("Customer profile not found for this user"));
-
-        System.out.println("[v0] PaymentController: Extracted customerId: " + customerId + " from userId: " + userId);
-        return customerId;
-    }
     @PostMapping("/deposit/stripe")
     public ResponseEntity<ApiResponse<DepositResponse>> createStripeDeposit(
             @RequestBody CreateDepositRequest request,
-            @RequestHeader("Authorization") String token) throws StripeException {
-
-        Long customerId = getCustomerIdFromToken(token);
+            @ProfileId(User.UserRole.CUSTOMER) Long customerId) throws StripeException {
 
         DepositResponse response =
                 paymentService.createStripeDeposit(customerId, request);
@@ -57,9 +42,7 @@ public class PaymentController {
     @PostMapping("/deposit/paypal")
     public ResponseEntity<ApiResponse<DepositResponse>> createPayPalDeposit(
             @RequestBody CreateDepositRequest request,
-            @RequestHeader("Authorization") String token) {
-
-        Long customerId = getCustomerIdFromToken(token);
+            @ProfileId(User.UserRole.CUSTOMER) Long customerId) {
 
         DepositResponse response =
                 paymentService.createPayPalDeposit(customerId, request);
@@ -103,9 +86,7 @@ public class PaymentController {
 
     @GetMapping("/wallet/balance")
     public ResponseEntity<ApiResponse<WalletDTO>> getWalletBalance(
-            @RequestHeader("Authorization") String token) {
-
-        Long customerId = getCustomerIdFromToken(token);
+            @ProfileId(User.UserRole.CUSTOMER) Long customerId) {
 
         WalletDTO wallet =
                 paymentService.getWalletBalance(customerId);
@@ -120,9 +101,7 @@ public class PaymentController {
 
     @GetMapping("/history")
     public ResponseEntity<ApiResponse<List<PaymentDTO>>> getPaymentHistory(
-            @RequestHeader("Authorization") String token) {
-
-        Long customerId = getCustomerIdFromToken(token);
+            @ProfileId(User.UserRole.CUSTOMER) Long customerId) {
 
         List<PaymentDTO> payments =
                 paymentService.getPaymentHistory(customerId);
@@ -0,0 +1,79 @@
+package com.assignmentpoint.controller;
+
+import com.assignmentpoint.exception.TooManyRequestsException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed pool for long streaming responses. Each one holds a thread for as long
+ * as the client takes to read it, so they run here rather than on the shared MVC
+ * async executor, where a few slow downloads would queue every other async request.
+ * A request beyond the limit is rejected straight away with a 429.
+ */
+class StreamingTaskPool {
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final String name;
+    private final Semaphore permits;
+    private final ThreadPoolExecutor executor;
+    private final TaskExecutorAdapter taskExecutor;
+
+    StreamingTaskPool(String name, int threads) {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.name = name;
+        this.permits = new Semaphore(poolSize);
+        // Queue slack covers the moment between a task releasing its permit and its thread going idle
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.taskExecutor = new TaskExecutorAdapter(executor);
+    }
+
+    /**
+     * Wraps the callable in a WebAsyncTask on this pool, or throws a 429 when every
+     * slot is taken. The slot is freed when the callable ends, or when the request
+     * completes first (timeout, client gone) and the callable never started.
+     */
+    WebAsyncTask<Void> submit(long timeoutMs, Callable<Void> callable) {
+        if (!permits.tryAcquire()) {
+            throw new TooManyRequestsException(
+                    "Too many " + name + " downloads in progress, please try again shortly", RETRY_AFTER_SECONDS);
+        }
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncTask<Void> task = new WebAsyncTask<>(timeoutMs, taskExecutor, () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                return callable.call();
+            } finally {
+                permits.release();
+            }
+        });
+        task.onCompletion(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                permits.release();
+            }
+        });
+        return task;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,10 +2,12 @@ package com.assignmentpoint.controller;
 
 import com.assignmentpoint.dto.UserStatsDTO;
 import com.assignmentpoint.entity.User;
+import com.assignmentpoint.service.StatsRebuildJob;
 import com.assignmentpoint.service.UserStatsService;
 import com.assignmentpoint.service.UserService;
 import com.assignmentpoint.util.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +24,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private StatsRebuildJob statsRebuildJob;
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<User>>> getAllUsers(@RequestParam(required = false) String role) {
         List<User> users;
@@ -38,6 +43,12 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("Users retrieved", users));
     }
 
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildStats() {
+        String message = statsRebuildJob.trigger() ? "Stats rebuild started" : "Stats rebuild already running";
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(message, null));
+    }
+
     @GetMapping("/{userId}/stats")
     public ResponseEntity<ApiResponse<UserStatsDTO>> getUserStats(@PathVariable Long userId) {
         UserStatsDTO stats = userStatsService.getUserStats(userId);
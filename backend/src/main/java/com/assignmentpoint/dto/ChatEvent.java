@@ -0,0 +1,32 @@
+package com.assignmentpoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Pushed to /topic/orders/{orderId} subscribers. MESSAGE carries the new message;
+ * READ carries the receipt for messageId; READ_UP_TO means every message readerId
+ * received in the order up to messageId is now read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatEvent {
+
+    public enum Type {
+        MESSAGE,
+        READ,
+        READ_UP_TO
+    }
+
+    private Type type;
+    private Long orderId;
+    private MessageDTO message;
+    private Long messageId;
+    private Long readerId;
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,22 @@
+package com.assignmentpoint.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * STOMP payload for a chat message. The order comes from the destination and the
+ * sender from the session, so only the receiver and text are sent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageRequest {
+    private Long receiverId;
+
+    @NotBlank(message = "Message text is required")
+    private String messageText;
+}
@@ -0,0 +1,25 @@
+package com.assignmentpoint.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class CreateUploadSessionRequest {
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long fileSize;
+
+    private String contentType;
+    private String category;
+
+    /** Optional SHA-256 hex of the whole file, verified when the upload completes. */
+    private String sha256;
+}
@@ -0,0 +1,17 @@
+package com.assignmentpoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageFeedDTO {
+    private List<MessageDTO> messages;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -18,6 +18,7 @@ public class OrderFileDTO {
     private String fileName;
     private String fileUrl;
     private Long fileSize;
+    private String sha256;
     private String fileType;
     private String fileCategory;
     private Boolean isSeen;
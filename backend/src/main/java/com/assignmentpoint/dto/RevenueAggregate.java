@@ -0,0 +1,12 @@
+package com.assignmentpoint.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for completed-order revenue grouped by returning/new customer.
+ */
+public interface RevenueAggregate {
+    Boolean getReturning();
+    Long getOrders();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,16 @@
+package com.assignmentpoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountsDTO {
+    private long total;
+    private Map<Long, Long> byOrder;
+}
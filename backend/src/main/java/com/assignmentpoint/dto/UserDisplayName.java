@@ -0,0 +1,10 @@
+package com.assignmentpoint.dto;
+
+/**
+ * Projection of just the fields needed to show a user's name.
+ */
+public interface UserDisplayName {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+}
@@ -0,0 +1,37 @@
+package com.assignmentpoint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored copy of a file's bytes, keyed by SHA-256. refCount is the number of
+ * OrderFile rows pointing at it; the blob is deleted when it drops to zero. crc32 is
+ * kept for ZIP bundles and is null for blobs stored before it was recorded.
+ */
+@Entity
+@Table(name = "file_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    private Long crc32;
+
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+
+    private LocalDateTime createdAt;
+}
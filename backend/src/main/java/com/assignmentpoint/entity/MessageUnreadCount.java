@@ -0,0 +1,34 @@
+package com.assignmentpoint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unread messages per (receiver, order), adjusted when a message is sent or read so
+ * unread badges never count the messages table.
+ */
+@Entity
+@Table(name = "message_unread_counts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_order", columnNames = {"user_id", "order_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageUnreadCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+}
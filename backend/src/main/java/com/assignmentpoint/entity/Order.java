@@ -2,11 +2,17 @@ package com.assignmentpoint.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 @Entity
 @Table(name = "orders")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +23,12 @@ public class Order extends BaseEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock for status/assignment changes. Counter columns are updated with
+    // bulk SQL and left out of the version so bidding does not conflict with them.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "order_number", nullable = false, unique = true, length = 50)
     private String orderNumber;
 
@@ -147,7 +159,24 @@ public class Order extends BaseEntity {
         REVISION,
         COMPLETED,
         CANCELED,
-        DISPUTED
+        DISPUTED;
+
+        private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+        static {
+            TRANSITIONS.put(AVAILABLE, EnumSet.of(PENDING, IN_PROGRESS, CANCELED));
+            TRANSITIONS.put(PENDING, EnumSet.of(AVAILABLE, IN_PROGRESS, CANCELED));
+            TRANSITIONS.put(IN_PROGRESS, EnumSet.of(IN_REVIEW, REVISION, CANCELED, DISPUTED));
+            TRANSITIONS.put(IN_REVIEW, EnumSet.of(IN_PROGRESS, REVISION, COMPLETED, DISPUTED));
+            TRANSITIONS.put(REVISION, EnumSet.of(IN_PROGRESS, IN_REVIEW, CANCELED, DISPUTED));
+            TRANSITIONS.put(COMPLETED, EnumSet.of(DISPUTED));
+            TRANSITIONS.put(CANCELED, EnumSet.noneOf(OrderStatus.class));
+            TRANSITIONS.put(DISPUTED, EnumSet.of(REVISION, COMPLETED, CANCELED));
+        }
+
+        public boolean canTransitionTo(OrderStatus next) {
+            return TRANSITIONS.get(this).contains(next);
+        }
     }
 
     public enum Priority {
@@ -37,6 +37,14 @@ public class OrderFile extends BaseEntity {
     private String fileType;
     private String fileCategory;
     
+    /** SHA-256 hex of the stored bytes, computed while the upload streams in; also the download ETag. */
+    @Column(length = 64)
+    private String sha256;
+    
+    /** True when the bytes live in the blob store and this row holds a reference on the FileBlob. */
+    @Column(name = "stored_as_blob", nullable = false)
+    private Boolean storedAsBlob = false;
+    
     @Column(columnDefinition = "boolean default false")
     private Boolean isSeen = false;
     
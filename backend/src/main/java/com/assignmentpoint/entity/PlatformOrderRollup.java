@@ -0,0 +1,32 @@
+package com.assignmentpoint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Platform-wide order count and order value per status, maintained alongside
+ * user_order_stats so the admin dashboard never scans the orders table.
+ */
+@Entity
+@Table(name = "platform_order_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlatformOrderRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalAmount;
+}
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "transactions")
+@EntityListeners(TransactionStatusListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +45,12 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionStatus status = TransactionStatus.PENDING;
     
+    /** Status as last loaded or saved, so TransactionStatusListener can see transitions. */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private TransactionStatus persistedStatus;
+    
     public enum TransactionType {
         ORDER_PAYMENT, WRITER_EARNING, EDITOR_EARNING, MANAGER_EARNING, 
         SALES_COMMISSION, WITHDRAWAL, REFUND, BONUS, PENALTY
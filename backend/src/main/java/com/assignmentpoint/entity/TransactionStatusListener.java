@@ -0,0 +1,43 @@
+package com.assignmentpoint.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on Transaction that publishes a StatusChanged event whenever a save
+ * changes the status. Saves that leave the status alone publish nothing. The event
+ * is published during the flush, inside the database transaction, so listeners can
+ * still read lazy associations and defer their own work to after commit.
+ */
+@Component
+public class TransactionStatusListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TransactionStatusListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoaded(Transaction transaction) {
+        transaction.setPersistedStatus(transaction.getStatus());
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Transaction transaction) {
+        Transaction.TransactionStatus previous = transaction.getPersistedStatus();
+        Transaction.TransactionStatus current = transaction.getStatus();
+        transaction.setPersistedStatus(current);
+        if (previous != current) {
+            eventPublisher.publishEvent(new StatusChanged(transaction, previous));
+        }
+    }
+
+    /** previous is null for a newly inserted transaction. */
+    public record StatusChanged(Transaction transaction, Transaction.TransactionStatus previous) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.assignmentpoint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated order count per (party, status), maintained on every order
+ * status or assignment change so per-user stats never scan the orders table.
+ */
+@Entity
+@Table(name = "user_order_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_party_status", columnNames = {"party_type", "party_id", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOrderStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "party_type", nullable = false)
+    private PartyType partyType;
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    public enum PartyType {
+        CUSTOMER,
+        WRITER,
+        EDITOR
+    }
+}
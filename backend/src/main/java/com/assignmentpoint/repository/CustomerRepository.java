@@ -2,6 +2,9 @@ package com.assignmentpoint.repository;
 
 import com.assignmentpoint.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
@@ -11,4 +14,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByUserId(Long userId);
     List<Customer> findBySalesAgentId(Long salesAgentId);
     List<Customer> findByIsReturning(Boolean isReturning);
+
+    // isReturning is assigned first so it sees the pre-increment order count
+    @Modifying
+    @Query("UPDATE Customer c SET " +
+            "c.isReturning = CASE WHEN COALESCE(c.totalOrders, 0) >= 1 THEN true ELSE COALESCE(c.isReturning, false) END, " +
+            "c.totalOrders = COALESCE(c.totalOrders, 0) + 1 " +
+            "WHERE c.id = :customerId")
+    int incrementTotalOrders(@Param("customerId") Long customerId);
 }
@@ -0,0 +1,46 @@
+package com.assignmentpoint.repository;
+
+import com.assignmentpoint.entity.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    /**
+     * Adds a reference, creating the blob row on first use. The row stays locked until
+     * the caller commits, which serialises it against a concurrent last release.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO file_blobs (sha256, size, crc32, ref_count, created_at) " +
+            "VALUES (:sha256, :size, :crc32, 1, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, crc32 = COALESCE(crc32, :crc32)", nativeQuery = true)
+    void acquire(@Param("sha256") String sha256, @Param("size") long size, @Param("crc32") Long crc32);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.sha256 = :sha256")
+    Optional<FileBlob> lockBySha256(@Param("sha256") String sha256);
+
+    @Query("SELECT b.sha256 FROM FileBlob b WHERE b.sha256 > :after ORDER BY b.sha256")
+    List<String> findKeysAfter(@Param("after") String after, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int release(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.crc32 = :crc32 WHERE b.sha256 = :sha256 AND b.crc32 IS NULL")
+    int recordCrc32(@Param("sha256") String sha256, @Param("crc32") long crc32);
+
+    @Modifying
+    @Query("DELETE FROM FileBlob b WHERE b.sha256 = :sha256 AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
@@ -3,18 +3,74 @@ package com.assignmentpoint.repository;
 import com.assignmentpoint.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findByOrderId(Long orderId, Pageable pageable);
-    Page<Message> findBySenderIdOrReceiverId(Long senderId, Long receiverId, Pageable pageable);
 
     List<Message> findByOrderId(Long orderId);
     List<Message> findByOrderIdOrderByCreatedAtDesc(Long orderId);
     List<Message> findByOrderIdAndIsReadFalse(Long orderId);
 
-    Page<Message> findByOrderIdOrderByCreatedAtDesc(Long orderId, Pageable pageable);
+    /**
+     * One page of an order's chat, newest first, strictly older than the cursor.
+     * Returned as a Slice so no COUNT query is issued.
+     */
+    @Query("SELECT m FROM Message m WHERE m.order.id = :orderId " +
+            "AND (:cursorCreatedAt IS NULL OR m.createdAt < :cursorCreatedAt " +
+            "     OR (m.createdAt = :cursorCreatedAt AND m.id < :cursorId)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findOrderPage(@Param("orderId") Long orderId,
+                                 @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    /**
+     * A user's inbox page as a UNION of the sent and received branches. Each branch walks
+     * its own (user, created_at, id) index and is limited before merging, instead of an
+     * OR across two indexes. UNION also drops the duplicate of a message sent to oneself.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT m.* FROM messages m WHERE m.sender_id = :userId " +
+            "  AND (:cursorCreatedAt IS NULL OR m.created_at < :cursorCreatedAt " +
+            "       OR (m.created_at = :cursorCreatedAt AND m.id < :cursorId)) " +
+            "  ORDER BY m.created_at DESC, m.id DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT m.* FROM messages m WHERE m.receiver_id = :userId " +
+            "  AND (:cursorCreatedAt IS NULL OR m.created_at < :cursorCreatedAt " +
+            "       OR (m.created_at = :cursorCreatedAt AND m.id < :cursorId)) " +
+            "  ORDER BY m.created_at DESC, m.id DESC LIMIT :limit)" +
+            ") inbox ORDER BY inbox.created_at DESC, inbox.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Message> findInboxPage(@Param("userId") Long userId,
+                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                @Param("cursorId") Long cursorId,
+                                @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :now " +
+            "WHERE m.id = :messageId AND m.receiver.id = :readerId AND (m.isRead = false OR m.isRead IS NULL)")
+    int markReadIfUnread(@Param("messageId") Long messageId, @Param("readerId") Long readerId,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Marks every unread message the reader received in the order, up to and including
+     * upToMessageId, in one statement.
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :now " +
+            "WHERE m.order.id = :orderId AND m.receiver.id = :readerId AND m.id <= :upToMessageId " +
+            "AND (m.isRead = false OR m.isRead IS NULL)")
+    int markReadUpTo(@Param("orderId") Long orderId,
+                     @Param("readerId") Long readerId,
+                     @Param("upToMessageId") Long upToMessageId,
+                     @Param("now") LocalDateTime now);
 }
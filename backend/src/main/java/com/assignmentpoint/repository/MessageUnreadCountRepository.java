@@ -0,0 +1,37 @@
+package com.assignmentpoint.repository;
+
+import com.assignmentpoint.entity.MessageUnreadCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface MessageUnreadCountRepository extends JpaRepository<MessageUnreadCount, Long> {
+
+    @Query("SELECT c FROM MessageUnreadCount c WHERE c.userId = :userId AND c.unreadCount > 0")
+    List<MessageUnreadCount> findUnreadByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO message_unread_counts (user_id, order_id, unread_count) " +
+            "VALUES (:userId, :orderId, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + :delta, 0)", nativeQuery = true)
+    void adjust(@Param("userId") Long userId,
+                @Param("orderId") Long orderId,
+                @Param("delta") long delta);
+
+    /**
+     * Sets each counter to the number of unread messages. Rows written concurrently by
+     * adjust() are overwritten with the absolute count rather than colliding, so this
+     * is safe to run while the app serves traffic, and on several nodes at once.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO message_unread_counts (user_id, order_id, unread_count) " +
+            "SELECT receiver_id, order_id, COUNT(*) FROM messages " +
+            "WHERE receiver_id IS NOT NULL AND (is_read = 0 OR is_read IS NULL) " +
+            "GROUP BY receiver_id, order_id " +
+            "ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count)", nativeQuery = true)
+    int rebuild();
+}
@@ -1,10 +1,18 @@
 package com.assignmentpoint.repository;
 
 import com.assignmentpoint.entity.OrderBid;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderBidRepository extends JpaRepository<OrderBid, Long> {
@@ -13,4 +21,24 @@ public interface OrderBidRepository extends JpaRepository<OrderBid, Long> {
     List<OrderBid> findByStatus(OrderBid.BidStatus status);
     Optional<OrderBid> findByOrderIdAndWriterId(Long orderId, Long writerId);
     List<OrderBid> findByOrderIdAndStatus(Long orderId, OrderBid.BidStatus status);
+
+    @Modifying
+    @Query("UPDATE OrderBid b SET b.status = 'ACCEPTED', b.updatedAt = :now WHERE b.id = :bidId AND b.status = 'PENDING'")
+    int acceptIfPending(@Param("bidId") Long bidId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderBid b SET b.status = 'WITHDRAWN', b.updatedAt = :now WHERE b.id = :bidId AND b.status = 'PENDING'")
+    int withdrawIfPending(@Param("bidId") Long bidId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderBid b SET b.status = 'REJECTED', b.updatedAt = :now " +
+            "WHERE b.order.id = :orderId AND b.id <> :bidId AND b.status = 'PENDING'")
+    int rejectCompetingBids(@Param("orderId") Long orderId, @Param("bidId") Long bidId, @Param("now") LocalDateTime now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM OrderBid b JOIN FETCH b.writer w JOIN FETCH w.user ORDER BY b.id")
+    Stream<OrderBid> streamAllForExport();
 }
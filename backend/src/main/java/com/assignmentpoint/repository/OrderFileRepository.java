@@ -1,13 +1,21 @@
 package com.assignmentpoint.repository;
 
 import com.assignmentpoint.entity.OrderFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderFileRepository extends JpaRepository<OrderFile, Long> {
     List<OrderFile> findByOrderId(Long orderId);
     List<OrderFile> findByOrderIdAndFileCategory(Long orderId, String fileCategory);
     List<OrderFile> findByUploadedById(Long userId);
+    Optional<OrderFile> findFirstByFileUrl(String fileUrl);
+
+    @Query("SELECT f.id FROM OrderFile f WHERE f.storedAsBlob = false AND f.id > :afterId ORDER BY f.id")
+    List<Long> findFlatFileIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
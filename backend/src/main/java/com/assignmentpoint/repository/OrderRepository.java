@@ -1,14 +1,34 @@
 package com.assignmentpoint.repository;
 
+import com.assignmentpoint.dto.RevenueAggregate;
 import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.User;
+import com.assignmentpoint.entity.Writer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Listing queries fetch the customer and writer (with their users) in the same
+     * round trip so OrderService.convertToDTO never triggers lazy loads per row.
+     */
+    String LISTING_SELECT = "SELECT o FROM Order o " +
+            "JOIN FETCH o.customer c JOIN FETCH c.user " +
+            "LEFT JOIN FETCH o.writer w LEFT JOIN FETCH w.user ";
+
     Optional<Order> findByOrderNumber(String orderNumber);
     List<Order> findByStatus(Order.OrderStatus status);
     List<Order> findByCustomerId(Long customerId);
@@ -16,9 +36,84 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByEditorId(Long editorId);
     List<Order> findBySalesAgentId(Long salesAgentId);
     
-    @Query("SELECT o FROM Order o WHERE o.status = 'AVAILABLE' ORDER BY o.createdAt DESC")
-    List<Order> findAvailableOrders();
-    
+    @Query(LISTING_SELECT)
+    List<Order> findAllForListing();
+
+    @Query(LISTING_SELECT + "WHERE c.id = :customerId")
+    List<Order> findByCustomerIdForListing(@Param("customerId") Long customerId);
+
+    @Query(LISTING_SELECT + "WHERE w.id = :writerId")
+    List<Order> findByWriterIdForListing(@Param("writerId") Long writerId);
+
+    @Query(LISTING_SELECT + "WHERE o.status = :status")
+    List<Order> findByStatusForListing(@Param("status") Order.OrderStatus status);
+
+    @Query(LISTING_SELECT + "WHERE o.status = 'AVAILABLE' " +
+            "AND (:subject IS NULL OR o.subject = :subject) " +
+            "AND (:educationLevel IS NULL OR o.educationLevel = :educationLevel) " +
+            "AND (:type IS NULL OR o.type = :type) " +
+            "AND (:deadlineFrom IS NULL OR o.deadline >= :deadlineFrom) " +
+            "AND (:deadlineTo IS NULL OR o.deadline <= :deadlineTo) " +
+            "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+            "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findAvailableOrdersPage(@Param("subject") String subject,
+                                        @Param("educationLevel") String educationLevel,
+                                        @Param("type") String type,
+                                        @Param("deadlineFrom") LocalDateTime deadlineFrom,
+                                        @Param("deadlineTo") LocalDateTime deadlineTo,
+                                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LISTING_SELECT + "ORDER BY o.id")
+    Stream<Order> streamAllForExport();
+
+    @Query("SELECT o.customerIsReturning AS returning, COUNT(o) AS orders, SUM(o.totalAmount) AS revenue " +
+            "FROM Order o WHERE o.status = 'COMPLETED' " +
+            "AND o.completedAt >= :from AND o.completedAt < :to " +
+            "GROUP BY o.customerIsReturning")
+    List<RevenueAggregate> sumCompletedRevenue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(o.completedAt) FROM Order o WHERE o.status = 'COMPLETED'")
+    LocalDateTime findFirstCompletionTime();
+
+    /** Gives completed orders from before completion was timestamped their last update time. */
+    @Modifying
+    @Query("UPDATE Order o SET o.completedAt = o.updatedAt WHERE o.status = 'COMPLETED' AND o.completedAt IS NULL")
+    int backfillCompletedAt();
+
+    @Modifying
+    @Query("UPDATE Order o SET o.totalBids = COALESCE(o.totalBids, 0) + 1 WHERE o.id = :orderId")
+    int incrementTotalBids(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.totalBids = o.totalBids - 1 WHERE o.id = :orderId AND o.totalBids > 0")
+    int decrementTotalBids(@Param("orderId") Long orderId);
+
+    /**
+     * Moves an AVAILABLE order to IN_PROGRESS for the winning bid. Returns 0 when the
+     * order has already left AVAILABLE, e.g. because another bid was accepted first.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.writer = :writer, o.writerManager = :writerManager, o.winningBidId = :bidId, " +
+            "o.status = 'IN_PROGRESS', o.startedAt = :now, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id = :orderId AND o.status = 'AVAILABLE'")
+    int claimForBid(@Param("orderId") Long orderId,
+                    @Param("bidId") Long bidId,
+                    @Param("writer") Writer writer,
+                    @Param("writerManager") User writerManager,
+                    @Param("now") LocalDateTime now);
+
+    /** Whether the user is the order's customer or its assigned writer. */
+    @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM Order o LEFT JOIN o.customer c LEFT JOIN o.writer w " +
+            "WHERE o.id = :orderId AND (c.user.id = :userId OR w.user.id = :userId)")
+    boolean isParticipant(@Param("orderId") Long orderId, @Param("userId") Long userId);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.writer.id = :writerId AND o.status = 'COMPLETED'")
     Integer countCompletedOrdersByWriter(Long writerId);
 }
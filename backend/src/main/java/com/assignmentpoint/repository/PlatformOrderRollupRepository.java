@@ -0,0 +1,28 @@
+package com.assignmentpoint.repository;
+
+import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.PlatformOrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+
+@Repository
+public interface PlatformOrderRollupRepository extends JpaRepository<PlatformOrderRollup, Order.OrderStatus> {
+
+    @Modifying
+    @Query(value = "INSERT INTO platform_order_rollup (status, order_count, total_amount) " +
+            "VALUES (:status, :countDelta, :amountDelta) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :countDelta, " +
+            "total_amount = total_amount + :amountDelta", nativeQuery = true)
+    void adjust(@Param("status") String status,
+                @Param("countDelta") long countDelta,
+                @Param("amountDelta") BigDecimal amountDelta);
+
+    @Modifying
+    @Query(value = "INSERT INTO platform_order_rollup (status, order_count, total_amount) " +
+            "SELECT status, COUNT(*), COALESCE(SUM(total_amount), 0) FROM orders GROUP BY status", nativeQuery = true)
+    int rebuild();
+}
@@ -1,14 +1,19 @@
 package com.assignmentpoint.repository;
 
 import com.assignmentpoint.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -19,4 +24,17 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = :type AND t.status = 'COMPLETED'")
     BigDecimal sumAmountByUserIdAndType(Long userId, Transaction.TransactionType type);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.user LEFT JOIN FETCH t.order " +
+            "WHERE t.status = :status ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findLatestByStatus(@Param("status") Transaction.TransactionStatus status, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.user LEFT JOIN FETCH t.order ORDER BY t.id")
+    Stream<Transaction> streamAllForExport();
+
+    boolean existsByOrderIdAndTransactionType(Long orderId, Transaction.TransactionType transactionType);
 }
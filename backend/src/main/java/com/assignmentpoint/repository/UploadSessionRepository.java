@@ -0,0 +1,45 @@
+package com.assignmentpoint.repository;
+
+import com.assignmentpoint.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /** Open sessions past their expiry; sessions being assembled are never swept. */
+    @Query("SELECT s.id FROM UploadSession s WHERE s.status = 'OPEN' AND s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.expiresAt = :expiresAt WHERE s.id = :id AND s.status = 'OPEN'")
+    int extend(@Param("id") String id, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Claims the session for assembly until assemblyDeadline. Returns 0 when it is
+     * already being completed, so two concurrent complete calls cannot both build the
+     * file. A claim whose deadline has passed is assumed dead (e.g. the node crashed
+     * mid-assembly) and can be taken over.
+     */
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = 'ASSEMBLING', s.expiresAt = :assemblyDeadline " +
+            "WHERE s.id = :id AND (s.status = 'OPEN' OR s.expiresAt < :now)")
+    int claimForAssembly(@Param("id") String id,
+                         @Param("now") LocalDateTime now,
+                         @Param("assemblyDeadline") LocalDateTime assemblyDeadline);
+
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = 'OPEN', s.expiresAt = :expiresAt WHERE s.id = :id AND s.status = 'ASSEMBLING'")
+    int reopen(@Param("id") String id, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Reopens sessions whose assembly outlived its deadline, so their uploads can resume. */
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = 'OPEN', s.expiresAt = :expiresAt " +
+            "WHERE s.status = 'ASSEMBLING' AND s.expiresAt < :now")
+    int reopenStale(@Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
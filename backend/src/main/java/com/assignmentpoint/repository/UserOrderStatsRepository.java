@@ -0,0 +1,40 @@
+package com.assignmentpoint.repository;
+
+import com.assignmentpoint.entity.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long> {
+    List<UserOrderStats> findByPartyTypeAndPartyId(UserOrderStats.PartyType partyType, Long partyId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_stats (party_type, party_id, status, order_count) " +
+            "VALUES (:partyType, :partyId, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :delta", nativeQuery = true)
+    void adjust(@Param("partyType") String partyType,
+                @Param("partyId") Long partyId,
+                @Param("status") String status,
+                @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_stats (party_type, party_id, status, order_count) " +
+            "SELECT 'CUSTOMER', customer_id, status, COUNT(*) FROM orders GROUP BY customer_id, status", nativeQuery = true)
+    int rebuildCustomerCounts();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_stats (party_type, party_id, status, order_count) " +
+            "SELECT 'WRITER', writer_id, status, COUNT(*) FROM orders WHERE writer_id IS NOT NULL " +
+            "GROUP BY writer_id, status", nativeQuery = true)
+    int rebuildWriterCounts();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_stats (party_type, party_id, status, order_count) " +
+            "SELECT 'EDITOR', editor_id, status, COUNT(*) FROM orders WHERE editor_id IS NOT NULL " +
+            "GROUP BY editor_id, status", nativeQuery = true)
+    int rebuildEditorCounts();
+}
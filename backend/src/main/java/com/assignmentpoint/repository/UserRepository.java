@@ -1,8 +1,12 @@
 package com.assignmentpoint.repository;
 
+import com.assignmentpoint.dto.UserDisplayName;
 import com.assignmentpoint.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -11,4 +15,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(User.UserRole role);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName FROM User u WHERE u.id IN :ids")
+    List<UserDisplayName> findDisplayNames(@Param("ids") Collection<Long> ids);
 }
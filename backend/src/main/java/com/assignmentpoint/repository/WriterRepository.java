@@ -2,7 +2,11 @@ package com.assignmentpoint.repository;
 
 import com.assignmentpoint.entity.Writer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.List;
 
@@ -11,4 +15,8 @@ public interface WriterRepository extends JpaRepository<Writer, Long> {
     Optional<Writer> findByUserId(Long userId);
     List<Writer> findByAvailabilityStatus(String status);
     List<Writer> findByWriterManagerId(Long managerId);
+
+    @Modifying
+    @Query("UPDATE Writer w SET w.walletBalance = COALESCE(w.walletBalance, 0) + :amount WHERE w.id = :writerId")
+    int creditWallet(@Param("writerId") Long writerId, @Param("amount") BigDecimal amount);
 }
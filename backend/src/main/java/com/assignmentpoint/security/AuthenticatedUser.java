@@ -0,0 +1,30 @@
+package com.assignmentpoint.security;
+
+import java.security.Principal;
+
+/**
+ * Principal built from the JWT claims once per request by JwtAuthenticationFilter.
+ * Controllers receive it with @AuthenticationPrincipal instead of re-parsing the token.
+ *
+ * profileId is the id of the role's Customer, Writer or SalesAgent row. It is null for
+ * roles without a profile and for tokens issued before the claim existed.
+ */
+public record AuthenticatedUser(Long userId, String email, String role, Long profileId) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Long customerId() {
+        return "CUSTOMER".equals(role) ? profileId : null;
+    }
+
+    public Long writerId() {
+        return "WRITER".equals(role) ? profileId : null;
+    }
+
+    public Long agentId() {
+        return "SALES_AGENT".equals(role) ? profileId : null;
+    }
+}
@@ -45,14 +45,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+            AuthenticatedUser principal = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
 
-                var user = userService.loadUserByUsername(email);
+            if (principal != null) {
+                var user = userService.loadUserByUsername(principal.email());
+                if (!user.isEnabled()) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                user,
+                                principal,
                                 null,
                                 user.getAuthorities()
                         );
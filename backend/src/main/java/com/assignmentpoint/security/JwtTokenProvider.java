@@ -2,10 +2,12 @@ package com.assignmentpoint.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 
 @Component
@@ -17,12 +19,18 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration-ms}")
     private long jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Key and parser are immutable and thread-safe, so they are built once
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    // Generate token with email, role, and userId
-    public String generateToken(String userId, String email, String role) {
+    // Generate token with email, role, userId and the role's profile id (may be null)
+    public String generateToken(String userId, String email, String role, Long profileId) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
 
@@ -30,36 +38,41 @@ public class JwtTokenProvider {
                 .setSubject(email)
                 .claim("userId", userId)
                 .claim("role", role)
+                .claim("profileId", profileId != null ? profileId.toString() : null)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token and reads all claims in a single parse.
+     * Returns null if the token is invalid or expired.
+     */
+    public AuthenticatedUser parseToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String userId = claims.get("userId", String.class);
+            String profileId = claims.get("profileId", String.class);
+            return new AuthenticatedUser(
+                    userId != null ? Long.valueOf(userId) : null,
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    profileId != null ? Long.valueOf(profileId) : null);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
         }
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody();
-        return claims.getSubject();
-    }
-
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody();
-        return claims.get("userId", String.class);
-    }
-
-    public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody();
-        return claims.get("role", String.class);
+    /**
+     * Expiry of a token already accepted by parseToken, for connections that outlive
+     * the request that presented it. Returns null if the token is invalid or expired.
+     */
+    public Instant getExpiration(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody().getExpiration().toInstant();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
     }
 }
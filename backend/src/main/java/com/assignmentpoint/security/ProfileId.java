@@ -0,0 +1,19 @@
+package com.assignmentpoint.security;
+
+import com.assignmentpoint.entity.User;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the caller's Customer, Writer or SalesAgent id into a controller method,
+ * read from the JWT. Callers whose role does not match get a 401.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProfileId {
+
+    User.UserRole value();
+}
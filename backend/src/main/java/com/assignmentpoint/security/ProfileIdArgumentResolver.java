@@ -0,0 +1,62 @@
+package com.assignmentpoint.security;
+
+import com.assignmentpoint.entity.User;
+import com.assignmentpoint.exception.UnauthorizedException;
+import com.assignmentpoint.service.AuthService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class ProfileIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final ObjectProvider<AuthService> authService;
+
+    public ProfileIdArgumentResolver(ObjectProvider<AuthService> authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(ProfileId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        User.UserRole role = parameter.getParameterAnnotation(ProfileId.class).value();
+        String message = profileName(role) + " profile not found for this user";
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)
+                || !role.name().equals(principal.role())) {
+            throw new UnauthorizedException(message);
+        }
+        if (principal.profileId() != null) {
+            return principal.profileId();
+        }
+
+        // Tokens issued before profile ids were embedded
+        Long profileId = authService.getObject().findProfileId(role, principal.userId());
+        if (profileId == null) {
+            throw new UnauthorizedException(message);
+        }
+        return profileId;
+    }
+
+    private String profileName(User.UserRole role) {
+        return switch (role) {
+            case CUSTOMER -> "Customer";
+            case WRITER -> "Writer";
+            case SALES_AGENT -> "Sales agent";
+            default -> role.name();
+        };
+    }
+}
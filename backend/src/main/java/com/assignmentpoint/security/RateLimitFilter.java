@@ -0,0 +1,59 @@
+package com.assignmentpoint.security;
+
+import com.assignmentpoint.util.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the per-user limits from RequestRateLimiter. Runs after JwtAuthenticationFilter
+ * so the bucket key is the authenticated userId; anonymous requests are left to the
+ * authorization rules.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RequestRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RequestRateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestRateLimiter.RouteGroup group = RequestRateLimiter.RouteGroup.forPath(path);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (group != null && authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && principal.userId() != null) {
+            long waitNanos = rateLimiter.tryAcquire(principal.userId(), group);
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding("UTF-8");
+                response.getWriter().write(objectMapper.writeValueAsString(
+                        ApiResponse.error("Too many requests, please slow down")));
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
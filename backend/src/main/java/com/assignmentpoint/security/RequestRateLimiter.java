@@ -0,0 +1,165 @@
+package com.assignmentpoint.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user token buckets, one per route group, kept in memory.
+ *
+ * Each bucket is a single long holding its "theoretical arrival time" (the GCRA form of
+ * a token bucket): taking a token advances it by one refill interval, and a request is
+ * refused when that would run more than a full bucket ahead of now. Updates are a CAS
+ * on an AtomicLongArray slot, so there are no locks. A user costs one map entry plus
+ * one small array, which keeps 100k active users to a few megabytes.
+ *
+ * A bucket whose arrival time is in the past is full, the same as no bucket at all.
+ * Such users are swept when the map grows past its limit.
+ */
+@Component
+public class RequestRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    public enum RouteGroup {
+        MARKETPLACE("marketplace", 30, 10),
+        MESSAGING("messaging", 20, 5),
+        PAYMENTS("payments", 5, 1);
+
+        private final String key;
+        private final int defaultCapacity;
+        private final int defaultRefillPerSecond;
+
+        RouteGroup(String key, int defaultCapacity, int defaultRefillPerSecond) {
+            this.key = key;
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPerSecond = defaultRefillPerSecond;
+        }
+
+        /**
+         * Path is relative to the servlet context, e.g. /orders/available.
+         */
+        public static RouteGroup forPath(String path) {
+            if (path.startsWith("/orders/available") || path.startsWith("/bids")) {
+                return MARKETPLACE;
+            }
+            if (path.startsWith("/messages")) {
+                return MESSAGING;
+            }
+            if (path.startsWith("/payments")) {
+                return PAYMENTS;
+            }
+            return null;
+        }
+    }
+
+    private final Map<Long, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, LongAdder> allowed = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, LongAdder> rejected = new EnumMap<>(RouteGroup.class);
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final long origin = System.nanoTime();
+    private final int maxTrackedUsers;
+
+    public RequestRateLimiter(Environment environment,
+                              @Value("${rate-limit.max-tracked-users:100000}") int maxTrackedUsers) {
+        this.maxTrackedUsers = maxTrackedUsers;
+        for (RouteGroup group : RouteGroup.values()) {
+            int capacity = environment.getProperty("rate-limit." + group.key + ".capacity",
+                    Integer.class, group.defaultCapacity);
+            int refill = environment.getProperty("rate-limit." + group.key + ".refill-per-second",
+                    Integer.class, group.defaultRefillPerSecond);
+            limits.put(group, new Limit(capacity, 1_000_000_000L / Math.max(1, refill)));
+            allowed.put(group, new LongAdder());
+            rejected.put(group, new LongAdder());
+        }
+    }
+
+    /**
+     * Takes one token from the user's bucket for the group.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(Long userId, RouteGroup group) {
+        AtomicLongArray userBuckets = bucketsFor(userId);
+        if (userBuckets == null) {
+            allowed.get(group).increment();
+            return 0;
+        }
+
+        Limit limit = limits.get(group);
+        long burst = limit.capacity() * limit.intervalNanos();
+        int slot = group.ordinal();
+        long now = System.nanoTime() - origin;
+
+        while (true) {
+            long arrival = userBuckets.get(slot);
+            long next = Math.max(arrival, now) + limit.intervalNanos();
+            if (next - now > burst) {
+                rejected.get(group).increment();
+                return next - now - burst;
+            }
+            if (userBuckets.compareAndSet(slot, arrival, next)) {
+                allowed.get(group).increment();
+                return 0;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedUsers", buckets.size());
+        for (RouteGroup group : RouteGroup.values()) {
+            Limit limit = limits.get(group);
+            Map<String, Object> groupStats = new LinkedHashMap<>();
+            groupStats.put("capacity", limit.capacity());
+            groupStats.put("refillPerSecond", 1_000_000_000L / limit.intervalNanos());
+            groupStats.put("allowed", allowed.get(group).sum());
+            groupStats.put("rejected", rejected.get(group).sum());
+            stats.put(group.key, groupStats);
+        }
+        return stats;
+    }
+
+    private AtomicLongArray bucketsFor(Long userId) {
+        AtomicLongArray existing = buckets.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        if (buckets.size() >= maxTrackedUsers) {
+            sweep();
+            if (buckets.size() >= maxTrackedUsers) {
+                // Over the limit even after dropping full buckets: let the request through untracked
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(userId, id -> new AtomicLongArray(RouteGroup.values().length));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime() - origin;
+        long previous = lastSweep.get();
+        if (now - previous < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+        buckets.values().removeIf(userBuckets -> {
+            for (int i = 0; i < userBuckets.length(); i++) {
+                if (userBuckets.get(i) > now) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private record Limit(int capacity, long intervalNanos) {
+    }
+}
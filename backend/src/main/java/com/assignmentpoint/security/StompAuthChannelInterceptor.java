@@ -0,0 +1,189 @@
+package com.assignmentpoint.security;
+
+import com.assignmentpoint.repository.OrderRepository;
+import com.assignmentpoint.service.ChatBroadcaster;
+import com.assignmentpoint.service.UserService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot set headers on the WebSocket handshake,
+ * so the JWT is sent in the CONNECT frame's Authorization header and the resulting
+ * principal is attached to the session for every later frame.
+ *
+ * A session lives no longer than its token, and every later frame re-checks that the
+ * account is still enabled, through the same cache the JWT filter uses. Failing either
+ * check makes Spring send an ERROR frame and close the connection. Sessions that only
+ * listen are closed by outboundGuard() on the first broadcast after expiry.
+ *
+ * An order's topic can only be subscribed to, and its chat only posted to, by its
+ * customer, its assigned writer, or staff.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Set<String> STAFF_ROLES = Set.of("ADMIN", "EDITOR");
+
+    /** Per-user queue for errors raised while handling this session's frames. */
+    public static final String ERROR_QUEUE = "/user/queue/errors";
+
+    private static final String ORDER_SEND_PREFIX = "/app/orders/";
+    private static final String MESSAGE_SEND_PREFIX = "/app/messages/";
+
+    private final JwtTokenProvider tokenProvider;
+    private final OrderRepository orderRepository;
+    private final UserService userService;
+
+    /** Token expiry per STOMP session id; removed on DISCONNECT, which Spring also sends for dropped sockets. */
+    private final Map<String, Instant> sessionExpiry = new ConcurrentHashMap<>();
+
+    public StompAuthChannelInterceptor(JwtTokenProvider tokenProvider, OrderRepository orderRepository,
+                                       UserService userService) {
+        this.tokenProvider = tokenProvider;
+        this.orderRepository = orderRepository;
+        this.userService = userService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            connect(accessor);
+        } else if (command == StompCommand.DISCONNECT) {
+            sessionExpiry.remove(accessor.getSessionId());
+        } else {
+            AuthenticatedUser principal = currentUser(accessor);
+            if (command == StompCommand.SUBSCRIBE) {
+                authorizeSubscription(accessor.getDestination(), principal);
+            } else if (command == StompCommand.SEND) {
+                authorizeSend(accessor.getDestination(), principal);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Interceptor for the outbound channel. A broadcast to a session whose token has
+     * expired is replaced by an ERROR frame, which makes Spring close the connection.
+     */
+    public ChannelInterceptor outboundGuard() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                    return message;
+                }
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                Instant expiry = sessionId != null ? sessionExpiry.get(sessionId) : null;
+                if (expiry == null || expiry.isAfter(Instant.now())) {
+                    return message;
+                }
+                StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+                error.setMessage("Session expired");
+                error.setSessionId(sessionId);
+                return MessageBuilder.createMessage(new byte[0], error.getMessageHeaders());
+            }
+        };
+    }
+
+    private void connect(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        String jwt = StringUtils.hasText(header) && header.startsWith("Bearer ") ? header.substring(7) : header;
+        AuthenticatedUser principal = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
+        Instant expiry = principal != null ? tokenProvider.getExpiration(jwt) : null;
+        if (principal == null || expiry == null) {
+            throw new MessageDeliveryException("Authentication required");
+        }
+        UserDetails user = loadEnabledUser(principal);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, user.getAuthorities()));
+        sessionExpiry.put(accessor.getSessionId(), expiry);
+    }
+
+    private AuthenticatedUser currentUser(StompHeaderAccessor accessor) {
+        if (!(accessor.getUser() instanceof Authentication authentication)) {
+            throw new MessageDeliveryException("Authentication required");
+        }
+        Instant expiry = sessionExpiry.get(accessor.getSessionId());
+        if (expiry == null || !expiry.isAfter(Instant.now())) {
+            throw new MessageDeliveryException("Session expired");
+        }
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        loadEnabledUser(principal);
+        return principal;
+    }
+
+    private UserDetails loadEnabledUser(AuthenticatedUser principal) {
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(principal.email());
+        } catch (UsernameNotFoundException e) {
+            throw new MessageDeliveryException("Authentication required");
+        }
+        if (!user.isEnabled()) {
+            throw new MessageDeliveryException("Account is disabled");
+        }
+        return user;
+    }
+
+    private void authorizeSubscription(String destination, AuthenticatedUser principal) {
+        if (ERROR_QUEUE.equals(destination)) {
+            return;
+        }
+        if (destination == null || !destination.startsWith(ChatBroadcaster.ORDER_TOPIC_PREFIX)) {
+            throw new MessageDeliveryException("Unknown destination: " + destination);
+        }
+        authorizeOrder(destination, destination.substring(ChatBroadcaster.ORDER_TOPIC_PREFIX.length()), principal);
+    }
+
+    /**
+     * Only the chat endpoints accept frames; a SEND straight to a broker destination would
+     * otherwise be relayed to every subscriber. Read receipts are checked by MessageService,
+     * which only lets the receiver mark a message read.
+     */
+    private void authorizeSend(String destination, AuthenticatedUser principal) {
+        if (destination != null && destination.startsWith(ORDER_SEND_PREFIX)
+                && destination.endsWith("/messages")) {
+            String orderId = destination.substring(ORDER_SEND_PREFIX.length(),
+                    destination.length() - "/messages".length());
+            authorizeOrder(destination, orderId, principal);
+        } else if (destination == null || !destination.startsWith(MESSAGE_SEND_PREFIX)) {
+            throw new MessageDeliveryException("Unknown destination: " + destination);
+        }
+    }
+
+    private void authorizeOrder(String destination, String rawOrderId, AuthenticatedUser principal) {
+        Long orderId;
+        try {
+            orderId = Long.valueOf(rawOrderId);
+        } catch (NumberFormatException e) {
+            throw new MessageDeliveryException("Unknown destination: " + destination);
+        }
+        if (!STAFF_ROLES.contains(principal.role()) && !orderRepository.isParticipant(orderId, principal.userId())) {
+            throw new MessageDeliveryException("Not allowed on " + destination);
+        }
+    }
+}
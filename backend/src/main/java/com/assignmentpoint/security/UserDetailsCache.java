@@ -0,0 +1,119 @@
+package com.assignmentpoint.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size- and TTL-bounded cache of the user fields the JWT filter needs, keyed by email.
+ * Entries are snapshots rather than UserDetails objects, because Spring Security erases
+ * credentials on the instances it hands out. A deactivated user is locked out at most
+ * one TTL after the change, or immediately when the write path calls invalidate().
+ *
+ * The map is access-ordered, so a full cache drops the least recently used user.
+ * Expired entries are removed when read, and each put also checks a few of the
+ * least recently used entries, so expiry never needs a full scan. All operations
+ * are O(1) under one short lock.
+ */
+@Component
+public class UserDetailsCache {
+
+    /** Least recently used entries checked for expiry on each put. */
+    private static final int EXPIRY_PROBES = 4;
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public UserDetailsCache(@Value("${auth.user-cache.max-size:10000}") int maxSize,
+                            @Value("${auth.user-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserDetailsCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CachedUser get(String email) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(email);
+            if (entry != null && entry.expiresAt - System.nanoTime() < 0) {
+                entries.remove(email);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    public void put(CachedUser user) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            expireEldest(now);
+            entries.put(user.email(), new Entry(user, now + ttlNanos));
+        }
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            synchronized (entries) {
+                entries.remove(email);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * Drops expired entries among the least recently used few. Anything expired that
+     * is still being read goes on its next get().
+     */
+    private void expireEldest(long now) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        for (int i = 0; i < EXPIRY_PROBES && eldest.hasNext(); i++) {
+            if (eldest.next().expiresAt - now < 0) {
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public record CachedUser(String email, String passwordHash, String role, boolean active) {
+    }
+
+    private record Entry(CachedUser user, long expiresAt) {
+    }
+}
@@ -9,8 +9,6 @@ import com.assignmentpoint.repository.*;
 import com.assignmentpoint.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -50,12 +48,13 @@ public class AuthService {
         System.out.println("[v0] AuthService: User created with ID: " + user.getId() + ", role: " + user.getRole());
 
         // Create role-specific entity
-        createRoleSpecificEntity(user, request);
+        Long profileId = createRoleSpecificEntity(user, request);
 
         String token = jwtTokenProvider.generateToken(
                 user.getId().toString(),
                 user.getEmail(),
-                user.getRole().name()
+                user.getRole().name(),
+                profileId
         );
 
         return AuthResponse.builder()
@@ -67,15 +66,17 @@ public class AuthService {
 
     public AuthResponse login(LoginRequest request) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // Runs on the login executor; the JWT below is the only session state
+            authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getEmail(),
                             request.getPassword()
                     )
             );
-            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (BadCredentialsException ex) {
             throw new UnauthorizedException("Invalid email or password");
+        } catch (DisabledException ex) {
+            throw new UnauthorizedException("Account is inactive");
         }
 
         User user = userRepository.findByEmail(request.getEmail())
@@ -88,7 +89,8 @@ public class AuthService {
         String token = jwtTokenProvider.generateToken(
                 user.getId().toString(),
                 user.getEmail(),
-                user.getRole().name()
+                user.getRole().name(),
+                findProfileId(user.getRole(), user.getId())
         );
 
         return AuthResponse.builder()
@@ -98,8 +100,21 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Id of the Customer, Writer or SalesAgent row for the user, or null for roles
+     * without a profile. Embedded in the JWT so requests need not look it up.
+     */
+    public Long findProfileId(User.UserRole role, Long userId) {
+        return switch (role) {
+            case CUSTOMER -> customerRepository.findByUserId(userId).map(Customer::getId).orElse(null);
+            case WRITER -> writerRepository.findByUserId(userId).map(Writer::getId).orElse(null);
+            case SALES_AGENT -> salesAgentRepository.findByUserId(userId).map(SalesAgent::getId).orElse(null);
+            default -> null;
+        };
+    }
+
     @Transactional
-    public void createRoleSpecificEntity(User user, RegisterRequest request) {
+    public Long createRoleSpecificEntity(User user, RegisterRequest request) {
         try {
             switch (user.getRole()) {
                 case WRITER:
@@ -107,7 +122,7 @@ public class AuthService {
                     Writer writer = Writer.builder().user(user).build();
                     writerRepository.save(writer);
                     System.out.println("[v0] AuthService: Writer created successfully");
-                    break;
+                    return writer.getId();
 
                 case CUSTOMER:
                     System.out.println("[v0] AuthService: Creating Customer record");
@@ -132,7 +147,7 @@ public class AuthService {
                         salesAgent.setActiveCustomers(salesAgent.getActiveCustomers() + 1);
                         salesAgentRepository.save(salesAgent);
                     }
-                    break;
+                    return customer.getId();
 
                 case SALES_AGENT:
                     System.out.println("[v0] AuthService: Creating SalesAgent record");
@@ -143,7 +158,7 @@ public class AuthService {
                             .build();
                     salesAgentRepository.save(agent);
                     System.out.println("[v0] AuthService: SalesAgent created with code: " + referralCode);
-                    break;
+                    return agent.getId();
 
 //                case MANAGER:
                 case ADMIN:
@@ -154,6 +169,7 @@ public class AuthService {
                 default:
                     System.out.println("[v0] AuthService: Unknown role: " + user.getRole());
             }
+            return null;
         } catch (Exception e) {
             System.err.println("[v0] AuthService: Error creating role-specific entity: " + e.getMessage());
             e.printStackTrace();
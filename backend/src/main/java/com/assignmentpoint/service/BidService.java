@@ -6,8 +6,8 @@ import com.assignmentpoint.entity.Order;
 import com.assignmentpoint.entity.OrderBid;
 import com.assignmentpoint.entity.Writer;
 import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.exception.ConflictException;
 import com.assignmentpoint.exception.ResourceNotFoundException;
-import com.assignmentpoint.exception.UnauthorizedException;
 import com.assignmentpoint.repository.OrderBidRepository;
 import com.assignmentpoint.repository.OrderRepository;
 import com.assignmentpoint.repository.WriterRepository;
@@ -30,16 +30,10 @@ public class BidService {
 
     private final WriterRepository writerRepository;
 
-    public Long getWriterIdByUserId(Long userId) {
-        return writerRepository.findByUserId(userId)
-                .map(Writer::getId)
-                .orElseThrow(() -> new UnauthorizedException(
-                        "Writer profile not found for user with ID: " + userId));
-    }
+    private final OrderStatsService orderStatsService;
     
     @Transactional
-    public BidDTO submitBid(CreateBidRequest request) {
-        Long writerId = getWriterIdByUserId(request.getWriterId());
+    public BidDTO submitBid(Long writerId, CreateBidRequest request) {
         Writer writer = writerRepository.findById(writerId)
             .orElseThrow(() -> new ResourceNotFoundException("Writer not found"));
         
@@ -68,15 +62,10 @@ public class BidService {
         bid.setCreatedAt(LocalDateTime.now());
 
         System.out.println("[BidService] Bid to be submitted: " + bid);
-        bidRepository.save(bid);
-
-
         bid = bidRepository.save(bid);
 
-        Integer currentBids = order.getTotalBids();
-        order.setTotalBids((currentBids == null ? 0 : currentBids) + 1);
-
-        orderRepository.save(order);
+        // Atomic increment last, so the order row lock is held only until commit
+        orderRepository.incrementTotalBids(order.getId());
         
         return convertToDTO(bid);
     }
@@ -93,32 +82,36 @@ public class BidService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Accepts a bid with a fixed number of statements regardless of how many bids the
+     * order has: a guarded UPDATE claims the order, a second marks the bid accepted,
+     * and a third rejects every other pending bid. If another acceptance got there
+     * first the guards match no rows and a ConflictException rolls everything back.
+     */
     @Transactional
     public BidDTO acceptBid(Long bidId) {
         OrderBid bid = bidRepository.findById(bidId)
             .orElseThrow(() -> new ResourceNotFoundException("Bid not found"));
         
         Order order = bid.getOrder();
-        
-        List<OrderBid> otherBids = bidRepository.findByOrderId(order.getId());
-        for (OrderBid otherBid : otherBids) {
-            if (!otherBid.getId().equals(bidId) && otherBid.getStatus() == OrderBid.BidStatus.PENDING) {
-                otherBid.setStatus(OrderBid.BidStatus.REJECTED);
-                bidRepository.save(otherBid);
-            }
+        Writer writer = bid.getWriter();
+        OrderStatsService.Snapshot before = orderStatsService.capture(order);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (orderRepository.claimForBid(order.getId(), bidId, writer, writer.getWriterManager(), now) == 0) {
+            throw new ConflictException("Order is no longer available; another bid may already have been accepted");
         }
-        
-        bid.setStatus(OrderBid.BidStatus.ACCEPTED);
-        bid = bidRepository.save(bid);
-        
-        order.setWriter(bid.getWriter());
-        order.setWriterManager(bid.getWriter().getWriterManager());
-        order.setWinningBidId(bidId);
-        order.setStatus(Order.OrderStatus.IN_PROGRESS);
-        order.setStartedAt(LocalDateTime.now());
-        orderRepository.save(order);
-        
-        return convertToDTO(bid);
+        if (bidRepository.acceptIfPending(bidId, now) == 0) {
+            throw new ConflictException("Bid is no longer pending");
+        }
+        bidRepository.rejectCompetingBids(order.getId(), bidId, now);
+
+        orderStatsService.recordTransition(before, new OrderStatsService.Snapshot(
+                Order.OrderStatus.IN_PROGRESS, before.totalAmount(), before.customerId(), writer.getId(), before.editorId()));
+
+        BidDTO accepted = convertToDTO(bid);
+        accepted.setStatus(OrderBid.BidStatus.ACCEPTED.name());
+        return accepted;
     }
     
     @Transactional
@@ -152,19 +145,15 @@ public class BidService {
         OrderBid bid = bidRepository.findById(bidId)
             .orElseThrow(() -> new ResourceNotFoundException("Bid not found"));
         
-        if (bid.getStatus() != OrderBid.BidStatus.PENDING) {
+        // Guarded UPDATE: of two concurrent withdrawals only one changes the row and decrements
+        if (bidRepository.withdrawIfPending(bidId, LocalDateTime.now()) == 0) {
             throw new BadRequestException("Only pending bids can be withdrawn");
         }
-        
-        Order order = bid.getOrder();
-        order.setTotalBids(order.getTotalBids() - 1);
-        orderRepository.save(order);
-        
-        bid.setStatus(OrderBid.BidStatus.WITHDRAWN);
-        bidRepository.save(bid);
+
+        orderRepository.decrementTotalBids(bid.getOrder().getId());
     }
     
-    private BidDTO convertToDTO(OrderBid bid) {
+    public BidDTO convertToDTO(OrderBid bid) {
         return BidDTO.builder()
             .id(bid.getId())
             .orderId(bid.getOrder().getId())
@@ -0,0 +1,26 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.ChatEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans chat events out to the order's STOMP topic once the write has committed, so
+ * subscribers never see a message that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatBroadcaster {
+
+    public static final String ORDER_TOPIC_PREFIX = "/topic/orders/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void broadcast(ChatEvent event) {
+        messagingTemplate.convertAndSend(ORDER_TOPIC_PREFIX + event.getOrderId(), event);
+    }
+}
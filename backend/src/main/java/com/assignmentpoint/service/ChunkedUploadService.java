@@ -0,0 +1,482 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.CreateUploadSessionRequest;
+import com.assignmentpoint.dto.OrderFileDTO;
+import com.assignmentpoint.dto.UploadSessionDTO;
+import com.assignmentpoint.entity.UploadSession;
+import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.exception.ConflictException;
+import com.assignmentpoint.exception.PayloadTooLargeException;
+import com.assignmentpoint.exception.ResourceNotFoundException;
+import com.assignmentpoint.exception.UnauthorizedException;
+import com.assignmentpoint.repository.UploadSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Resumable uploads in three steps: create a session, PUT each chunk with its
+ * SHA-256, then complete. Verified chunks are kept as separate files in a per-session
+ * staging directory, so a client that drops out only resends the chunks it is missing.
+ * On complete the chunks are copied into one staged file in parallel, hashed, and
+ * handed to OrderFileService like a single-request upload. Sessions that see no chunk
+ * for the configured TTL are garbage-collected together with their chunks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository sessionRepository;
+    private final OrderFileService orderFileService;
+    private final FileStorageService fileStorageService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${file.chunked.chunk-size:5242880}")
+    private int chunkSize;
+
+    @Value("${file.chunked.session-ttl-minutes:1440}")
+    private long sessionTtlMinutes;
+
+    @Value("${file.chunked.assembly-grace-minutes:60}")
+    private long assemblyGraceMinutes;
+
+    @Value("${file.chunked.assembly-threads:4}")
+    private int assemblyThreads;
+
+    @Value("${file.chunked.gc-interval-minutes:15}")
+    private long gcIntervalMinutes;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService assemblyExecutor;
+    private ScheduledExecutorService gcExecutor;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger counter = new AtomicInteger();
+        assemblyExecutor = Executors.newFixedThreadPool(Math.max(1, assemblyThreads), r -> {
+            Thread thread = new Thread(r, "upload-assembly-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        gcExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "upload-session-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        gcExecutor.scheduleWithFixedDelay(this::collectExpiredSessions, gcIntervalMinutes, gcIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public UploadSessionDTO createSession(Long userId, CreateUploadSessionRequest request) {
+        fileStorageService.requireAllowedExtension(request.getFileName());
+        if (request.getFileSize() > fileStorageService.getMaxFileSize()) {
+            throw new PayloadTooLargeException("File exceeds the maximum size of " + fileStorageService.getMaxFileSize() + " bytes");
+        }
+        String sha256 = request.getSha256() != null ? request.getSha256().toLowerCase() : null;
+        if (sha256 != null && !SHA256_HEX.matcher(sha256).matches()) {
+            throw new BadRequestException("sha256 must be 64 hex characters");
+        }
+        orderFileService.requireOrder(request.getOrderId());
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .orderId(request.getOrderId())
+                .userId(userId)
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .category(request.getCategory() != null && !request.getCategory().isBlank()
+                        ? request.getCategory() : "reference_materials")
+                .totalSize(request.getFileSize())
+                .chunkSize(chunkSize)
+                .chunkCount((int) ((request.getFileSize() + chunkSize - 1) / chunkSize))
+                .sha256(sha256)
+                .status(UploadSession.Status.OPEN)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(sessionTtlMinutes))
+                .build();
+
+        try {
+            Files.createDirectories(sessionDir(session.getId()));
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to start upload: " + e.getMessage());
+        }
+        session = sessionRepository.save(session);
+        log.debug("Started upload {} for order {}, {} chunks",
+                session.getId(), session.getOrderId(), session.getChunkCount());
+        return toDTO(session);
+    }
+
+    public UploadSessionDTO getSession(String uploadId, Long userId) {
+        return toDTO(requireSession(uploadId, userId));
+    }
+
+    /**
+     * Streams one chunk into the session's staging directory. The body is cut off as
+     * soon as it exceeds the chunk's expected length, and the chunk only becomes
+     * visible once its size and SHA-256 match. Re-sending a chunk replaces it.
+     */
+    public UploadSessionDTO putChunk(String uploadId, int index, Long userId, String checksum, InputStream body) {
+        UploadSession session = requireSession(uploadId, userId);
+        if (session.getStatus() != UploadSession.Status.OPEN) {
+            throw new ConflictException("Upload is being completed");
+        }
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new BadRequestException("Chunk index must be between 0 and " + (session.getChunkCount() - 1));
+        }
+        String expectedHash = checksum != null ? checksum.trim().toLowerCase() : "";
+        if (!SHA256_HEX.matcher(expectedHash).matches()) {
+            throw new BadRequestException("X-Chunk-Sha256 header with the chunk's SHA-256 hex is required");
+        }
+
+        long expectedLength = expectedChunkLength(session, index);
+        Path dir = sessionDir(uploadId);
+        Path partPath = dir.resolve("." + index + "." + UUID.randomUUID() + ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(partPath)) {
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > expectedLength) {
+                        throw new PayloadTooLargeException("Chunk " + index + " exceeds its expected length of " + expectedLength + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size != expectedLength) {
+                throw new BadRequestException("Chunk " + index + " has " + size + " bytes, expected " + expectedLength);
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equals(expectedHash)) {
+                throw new BadRequestException("Chunk " + index + " checksum mismatch");
+            }
+
+            // The extend UPDATE holds the session row lock until commit, so claimForAssembly()
+            // waits for the rename and no chunk can be replaced once assembly has started
+            transactionTemplate.executeWithoutResult(status -> {
+                if (sessionRepository.extend(uploadId, LocalDateTime.now().plusMinutes(sessionTtlMinutes)) == 0) {
+                    throw new ConflictException("Upload session is no longer open");
+                }
+                try {
+                    Files.move(partPath, chunkPath(dir, index), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new BadRequestException("Failed to store chunk " + index + ": " + e.getCause().getMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to store chunk " + index + ": " + e.getMessage());
+        } finally {
+            deleteQuietly(partPath);
+        }
+
+        return toDTO(session);
+    }
+
+    /**
+     * Assembles the chunks and records the file through OrderFileService. On any
+     * failure before the OrderFile exists the session is reopened so the client can
+     * fix the problem and complete again.
+     */
+    public OrderFileDTO complete(String uploadId, Long userId) {
+        UploadSession session = requireSession(uploadId, userId);
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                sessionRepository.claimForAssembly(uploadId, now, now.plusMinutes(assemblyGraceMinutes)));
+        if (claimed == null || claimed == 0) {
+            throw new ConflictException("Upload is already being completed");
+        }
+
+        FileStorageService.StagedFile staged = null;
+        OrderFileDTO orderFile;
+        try {
+            Path dir = sessionDir(uploadId);
+            List<Integer> missing = missingChunks(session, receivedChunks(dir));
+            if (!missing.isEmpty()) {
+                throw new BadRequestException("Missing chunks: " + missing);
+            }
+
+            staged = assemble(session, dir);
+            if (session.getSha256() != null && !session.getSha256().equals(staged.sha256())) {
+                throw new BadRequestException("File checksum mismatch");
+            }
+
+            orderFile = orderFileService.uploadFile(session.getOrderId(), userId, staged,
+                    session.getFileName(), session.getContentType(), session.getCategory());
+        } catch (RuntimeException e) {
+            if (staged != null) {
+                fileStorageService.discard(staged);
+            }
+            transactionTemplate.execute(status ->
+                    sessionRepository.reopen(uploadId, LocalDateTime.now().plusMinutes(sessionTtlMinutes)));
+            throw e;
+        }
+
+        // The file is recorded; a failed cleanup is left to the expiry sweep
+        try {
+            removeSession(uploadId);
+        } catch (RuntimeException e) {
+            log.warn("Cleanup of upload {} failed: {}", uploadId, e.getMessage());
+        }
+        log.debug("Completed upload {} as file {}", uploadId, orderFile.getId());
+        return orderFile;
+    }
+
+    public void abort(String uploadId, Long userId) {
+        requireSession(uploadId, userId);
+        removeSession(uploadId);
+    }
+
+    /**
+     * Copies every chunk to its offset in the staged file on the assembly pool, then
+     * hashes the result. The target is pre-sized so the positional transfers can land
+     * in any order.
+     */
+    private FileStorageService.StagedFile assemble(UploadSession session, Path dir) {
+        String extension = fileStorageService.requireAllowedExtension(session.getFileName());
+        Path target = null;
+        List<Future<?>> copies = new ArrayList<>();
+        try {
+            target = fileStorageService.newPartPath();
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(new byte[1]), session.getTotalSize() - 1);
+                for (int i = 0; i < session.getChunkCount(); i++) {
+                    Path chunk = chunkPath(dir, i);
+                    long offset = (long) i * session.getChunkSize();
+                    copies.add(assemblyExecutor.submit(() -> {
+                        copyChunk(chunk, out, offset);
+                        return null;
+                    }));
+                }
+
+                for (Future<?> copy : copies) {
+                    copy.get();
+                }
+                out.force(false);
+            }
+
+            // Hashed from the assembled file itself, so the blob key always matches the stored bytes
+            MessageDigest digest = newDigest();
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try (InputStream in = Files.newInputStream(target)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                }
+            }
+            return new FileStorageService.StagedFile(target, session.getTotalSize(),
+                    HexFormat.of().formatHex(digest.digest()), extension, crc.getValue());
+        } catch (IOException | ExecutionException e) {
+            copies.forEach(copy -> copy.cancel(true));
+            deleteQuietly(target);
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            throw new BadRequestException("Failed to assemble upload: " + cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            copies.forEach(copy -> copy.cancel(true));
+            deleteQuietly(target);
+            throw new BadRequestException("Interrupted while assembling upload");
+        }
+    }
+
+    private static void copyChunk(Path chunk, FileChannel out, long offset) throws IOException {
+        try (FileChannel in = FileChannel.open(chunk, StandardOpenOption.READ)) {
+            long size = in.size();
+            long done = 0;
+            while (done < size) {
+                long copied = out.transferFrom(in, offset + done, size - done);
+                if (copied <= 0) {
+                    throw new IOException("Short copy of " + chunk.getFileName());
+                }
+                done += copied;
+            }
+        }
+    }
+
+    /**
+     * Deletes open sessions that have not received a chunk within the TTL, plus staging
+     * directories left without a session row, e.g. after a crash mid-create. Sessions
+     * stuck assembling past the grace period, e.g. after a crash mid-assembly, are
+     * reopened so the client can resume them.
+     */
+    void collectExpiredSessions() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer reopened = transactionTemplate.execute(status ->
+                    sessionRepository.reopenStale(now, now.plusMinutes(sessionTtlMinutes)));
+            if (reopened != null && reopened > 0) {
+                log.warn("Reopened {} upload sessions stuck in assembly", reopened);
+            }
+            List<String> expired = sessionRepository.findExpiredIds(now);
+            for (String uploadId : expired) {
+                removeSession(uploadId);
+            }
+
+            Path root = fileStorageService.chunkStagingRoot();
+            if (Files.isDirectory(root)) {
+                long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
+                try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+                    for (Path dir : dirs) {
+                        if (Files.getLastModifiedTime(dir).toMillis() < cutoff
+                                && !sessionRepository.existsById(dir.getFileName().toString())) {
+                            deleteTree(dir);
+                        }
+                    }
+                }
+            }
+            if (!expired.isEmpty()) {
+                log.debug("Removed {} expired upload sessions", expired.size());
+            }
+        } catch (Exception e) {
+            log.warn("Upload session cleanup failed", e);
+        }
+    }
+
+    private void removeSession(String uploadId) {
+        transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteById(uploadId));
+        deleteTree(sessionDir(uploadId));
+    }
+
+    private UploadSession requireSession(String uploadId, Long userId) {
+        UploadSession session = sessionRepository.findById(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found"));
+        if (!session.getUserId().equals(userId)) {
+            throw new UnauthorizedException("Upload session belongs to another user");
+        }
+        return session;
+    }
+
+    private long expectedChunkLength(UploadSession session, int index) {
+        long offset = (long) index * session.getChunkSize();
+        return Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+    }
+
+    private Path sessionDir(String uploadId) {
+        return fileStorageService.chunkStagingRoot().resolve(UUID.fromString(uploadId).toString());
+    }
+
+    private static Path chunkPath(Path dir, int index) {
+        return dir.resolve(index + ".chunk");
+    }
+
+    private Set<Integer> receivedChunks(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return Set.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".chunk"))
+                    .map(name -> Integer.valueOf(name.substring(0, name.length() - ".chunk".length())))
+                    .collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read upload session: " + e.getMessage());
+        }
+    }
+
+    private List<Integer> missingChunks(UploadSession session, Set<Integer> received) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.getChunkCount(); i++) {
+            if (!received.contains(i)) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        return UploadSessionDTO.builder()
+                .uploadId(session.getId())
+                .orderId(session.getOrderId())
+                .fileName(session.getFileName())
+                .fileSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(receivedChunks(sessionDir(session.getId())).stream().sorted().collect(Collectors.toList()))
+                .status(session.getStatus().name())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
+    private static void deleteTree(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(ChunkedUploadService::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        gcExecutor.shutdownNow();
+        assemblyExecutor.shutdownNow();
+    }
+}
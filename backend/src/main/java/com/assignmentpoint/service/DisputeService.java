@@ -6,6 +6,7 @@ import com.assignmentpoint.exception.ResourceNotFoundException;
 import com.assignmentpoint.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -18,6 +19,12 @@ public class DisputeService {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OptimisticRetryTemplate retryTemplate;
+
     public Map<String, Integer> getDisputeCounts() {
         Map<String, Integer> counts = new HashMap<>();
 
@@ -35,26 +42,34 @@ public class DisputeService {
     }
 
     public List<OrderDTO> getActiveDisputes() {
-        List<Order> disputes = orderRepository.findByStatus(Order.OrderStatus.DISPUTED);
+        List<Order> disputes = orderRepository.findByStatusForListing(Order.OrderStatus.DISPUTED);
         return disputes.stream()
                 .map(orderService::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     public OrderDTO resolveDispute(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        order.setStatus(Order.OrderStatus.COMPLETED);
-        Order updatedOrder = orderRepository.save(order);
-
-        return orderService.convertToDTO(updatedOrder);
+        return retryTemplate.execute(() -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+            orderService.requireTransition(order, Order.OrderStatus.COMPLETED);
+            OrderStatsService.Snapshot before = orderStatsService.capture(order);
+            order.setStatus(Order.OrderStatus.COMPLETED);
+            if (order.getCompletedAt() == null) {
+                order.setCompletedAt(LocalDateTime.now());
+            }
+            Order updatedOrder = orderRepository.saveAndFlush(order);
+            orderStatsService.recordChange(before, updatedOrder);
+
+            return orderService.convertToDTO(updatedOrder);
+        });
     }
 
     public Map<String, List<OrderDTO>> getDisputesByStatus() {
         Map<String, List<OrderDTO>> disputesByStatus = new HashMap<>();
 
-        List<Order> allDisputes = orderRepository.findByStatus(Order.OrderStatus.DISPUTED);
+        List<Order> allDisputes = orderRepository.findByStatusForListing(Order.OrderStatus.DISPUTED);
 
         List<OrderDTO> openDisputes = allDisputes.stream()
                 .filter(o -> o.getCreatedAt().isAfter(java.time.LocalDateTime.now().minusDays(7)))
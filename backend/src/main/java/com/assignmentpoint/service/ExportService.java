@@ -0,0 +1,153 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.BidDTO;
+import com.assignmentpoint.dto.OrderDTO;
+import com.assignmentpoint.dto.TransactionDTO;
+import com.assignmentpoint.repository.OrderBidRepository;
+import com.assignmentpoint.repository.OrderRepository;
+import com.assignmentpoint.repository.TransactionRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams full-table admin exports straight from a forward-only JDBC cursor to the
+ * response. The persistence context is cleared every few hundred rows so memory
+ * stays flat regardless of table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int CLEAR_INTERVAL = 500;
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final OrderRepository orderRepository;
+    private final OrderBidRepository bidRepository;
+    private final TransactionRepository transactionRepository;
+    private final OrderService orderService;
+    private final BidService bidService;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StreamingResponseBody exportOrders(ExportFormat format) {
+        return out -> export(out, format, OrderDTO.class,
+                orderRepository::streamAllForExport, orderService::convertToDTO);
+    }
+
+    public StreamingResponseBody exportBids(ExportFormat format) {
+        return out -> export(out, format, BidDTO.class,
+                bidRepository::streamAllForExport, bidService::convertToDTO);
+    }
+
+    public StreamingResponseBody exportTransactions(ExportFormat format) {
+        return out -> export(out, format, TransactionDTO.class,
+                transactionRepository::streamAllForExport, transactionService::convertToDTO);
+    }
+
+    private <E, D> void export(OutputStream out, ExportFormat format, Class<D> rowType,
+                               Supplier<Stream<E>> source, Function<E, D> mapper) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        template.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            ObjectMapper csvMapper = objectMapper.copy().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+            try (Stream<E> rows = source.get()) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, csvMapper.convertValue(BeanUtils.instantiateClass(rowType), ROW_TYPE).keySet());
+                }
+
+                Iterator<E> iterator = rows.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    D row = mapper.apply(iterator.next());
+                    if (format == ExportFormat.CSV) {
+                        writeCsvLine(writer, csvMapper.convertValue(row, ROW_TYPE).values());
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+
+                    if (++written % CLEAR_INTERVAL == 0) {
+                        writer.flush();
+                        entityManager.clear();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export aborted: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void writeCsvLine(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(value));
+            first = false;
+        }
+        writer.write("\r\n");
+    }
+
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = String.valueOf(value);
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
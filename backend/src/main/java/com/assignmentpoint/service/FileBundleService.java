@@ -0,0 +1,182 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.entity.FileBlob;
+import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.OrderFile;
+import com.assignmentpoint.exception.ResourceNotFoundException;
+import com.assignmentpoint.repository.FileBlobRepository;
+import com.assignmentpoint.repository.OrderFileRepository;
+import com.assignmentpoint.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams all of an order's files as one ZIP built on the fly. Each file is read from
+ * storage through one 64 KB buffer straight into the response, so memory stays flat
+ * whatever the order holds and a slow client simply blocks the writer. Formats that
+ * are already compressed go in as STORED entries; ZIP needs their CRC-32 before the
+ * data, which comes from the blob row, or from one extra read for older blobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileBundleService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /** Images, PDFs and the zip-based Office formats gain nothing from deflate. */
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "pdf", "docx", "xlsx", "pptx", "jpg", "jpeg", "png", "gif", "zip");
+
+    private final OrderRepository orderRepository;
+    private final OrderFileRepository orderFileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final OrderFileService orderFileService;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Resolves every file up front, while the request can still fail cleanly with a
+     * 404, and returns a body that writes the archive. Files whose bytes are missing
+     * are left out of the archive rather than failing the whole bundle.
+     */
+    public Bundle prepare(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        List<OrderFile> files = orderFileRepository.findByOrderId(orderId);
+
+        List<String> blobKeys = files.stream()
+                .filter(file -> Boolean.TRUE.equals(file.getStoredAsBlob()))
+                .map(OrderFile::getSha256)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Long> crcs = fileBlobRepository.findAllById(blobKeys).stream()
+                .filter(blob -> blob.getCrc32() != null)
+                .collect(Collectors.toMap(FileBlob::getSha256, FileBlob::getCrc32));
+
+        Set<String> taken = new HashSet<>();
+        List<Entry> entries = new ArrayList<>();
+        for (OrderFile file : files) {
+            FileDownloadService.Download download;
+            try {
+                download = orderFileService.toDownload(file);
+            } catch (ResourceNotFoundException | IOException e) {
+                log.warn("Leaving file {} out of the bundle: {}", file.getId(), e.getMessage());
+                continue;
+            }
+            String name = uniqueName(file.getFileName(), taken);
+            String blobKey = Boolean.TRUE.equals(file.getStoredAsBlob()) ? file.getSha256() : null;
+            entries.add(new Entry(name, download, file.getUploadedAt(),
+                    COMPRESSED_EXTENSIONS.contains(extension(name)), crcs.get(blobKey), blobKey));
+        }
+
+        String prefix = order.getOrderNumber() != null ? order.getOrderNumber() : "order-" + orderId;
+        log.debug("Streaming {} files for order {}", entries.size(), orderId);
+        return new Bundle(prefix + "-files.zip", out -> write(entries, out));
+    }
+
+    private void write(List<Entry> entries, OutputStream out) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (Entry entry : entries) {
+            ZipEntry zipEntry = new ZipEntry(entry.name());
+            if (entry.uploadedAt() != null) {
+                zipEntry.setTimeLocal(entry.uploadedAt());
+            }
+
+            InputStream in;
+            try {
+                if (entry.stored()) {
+                    long size = entry.download().size();
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(size);
+                    zipEntry.setCompressedSize(size);
+                    zipEntry.setCrc(entry.crc32() != null ? entry.crc32() : computeCrc32(entry, buffer));
+                }
+                in = entry.download().openStream();
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                // Deleted since prepare(); nothing has been written for this entry yet
+                log.warn("Leaving missing file {} out of the bundle", entry.name());
+                continue;
+            }
+
+            try (in) {
+                zip.putNextEntry(zipEntry);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /** One sequential read for blobs stored before CRC-32 was recorded; remembered afterwards. */
+    private long computeCrc32(Entry entry, byte[] buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = entry.download().openStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        if (entry.blobKey() != null) {
+            try {
+                fileStorageService.recordCrc32(entry.blobKey(), crc.getValue());
+            } catch (Exception e) {
+                log.warn("Failed to record CRC-32 for blob {}: {}", entry.blobKey(), e.getMessage());
+            }
+        }
+        return crc.getValue();
+    }
+
+    /** Flattens the name into the archive root and numbers repeats: report.pdf, report (2).pdf. */
+    private String uniqueName(String fileName, Set<String> taken) {
+        String name = Objects.requireNonNullElse(fileName, "").replaceAll("[/\\\\]", "_").trim();
+        if (name.isEmpty() || name.equals(".") || name.equals("..")) {
+            name = "file";
+        }
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String suffix = dot > 0 ? name.substring(dot) : "";
+
+        String candidate = name;
+        for (int n = 2; !taken.add(candidate.toLowerCase(Locale.ROOT)); n++) {
+            candidate = base + " (" + n + ")" + suffix;
+        }
+        return candidate;
+    }
+
+    private String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private record Entry(String name, FileDownloadService.Download download, LocalDateTime uploadedAt,
+                         boolean stored, Long crc32, String blobKey) {
+    }
+
+    public record Bundle(String fileName, StreamingResponseBody body) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.exception.ResourceNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a stored file to the response with ETag / Last-Modified validators and
+ * single-range support. Local files go out through Tomcat's sendfile when the
+ * connector offers it, otherwise through FileChannel.transferTo, so the file is never
+ * copied onto the heap. Remote blobs are streamed through a small buffer.
+ */
+@Service
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /** Below this size a plain channel copy is cheaper than handing the file to the poller. */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    public void serve(Download download, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = download.size();
+        // HTTP dates have second precision, so compare against the truncated value
+        long lastModified = download.lastModified() / 1000 * 1000;
+        String etag = download.etag() != null ? "\"" + download.etag() + "\"" : null;
+
+        if (isNotModified(request, etag, lastModified)) {
+            writeValidators(response, etag, lastModified);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long count = length;
+        long[] range = resolveRange(request, etag, lastModified, length);
+        if (range == UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range != null) {
+            start = range[0];
+            count = range[1] - range[0] + 1;
+        }
+
+        boolean sendBody = !"HEAD".equals(request.getMethod()) && count > 0;
+        InputStream remote = null;
+        if (sendBody && download.localPath() == null) {
+            // Opened before any header is written so a missing object still gets a clean 404
+            try {
+                remote = download.source().open(start, count);
+            } catch (FileNotFoundException e) {
+                throw new ResourceNotFoundException("File not found");
+            }
+        }
+
+        try {
+            writeValidators(response, etag, lastModified);
+            if (range != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+            }
+            response.setContentType(download.contentType() != null ? download.contentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(download.fileName(), StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+            response.setContentLengthLong(count);
+
+            if (!sendBody) {
+                return;
+            }
+            if (remote != null) {
+                remote.transferTo(response.getOutputStream());
+            } else {
+                send(download.localPath(), start, count, request, response);
+            }
+        } finally {
+            if (remote != null) {
+                remote.close();
+            }
+        }
+    }
+
+    private void writeValidators(HttpServletResponse response, String etag, long lastModified) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+    }
+
+    private void send(Path path, long start, long count, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // Tomcat writes the region itself once the handler returns
+            request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * If-None-Match takes precedence; If-Modified-Since is only consulted when the
+     * client sent no entity tags (RFC 9110 section 13.2.2).
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etag != null && matchesAny(ifNoneMatch, etag, true);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * Returns the inclusive byte range to send, null for the whole file, or
+     * UNSATISFIABLE. Multi-range requests are answered with the whole file, which
+     * RFC 9110 allows.
+     */
+    private long[] resolveRange(HttpServletRequest request, String etag, long lastModified, long length) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean current = ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                    ? etag != null && matchesAny(ifRange, etag, false)
+                    : dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+            if (!current) {
+                return null;
+            }
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start >= length) {
+                    return UNSATISFIABLE;
+                }
+                if (end < start) {
+                    return null;
+                }
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean matchesAny(String header, String etag, boolean weakComparison) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weakComparison) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A stored file and the metadata needed to serve it. Local files are sent with
+     * sendfile from localPath; remote blobs are streamed from source. The etag is the
+     * bare SHA-256 hex of the content, or null when it is not known.
+     */
+    public record Download(Path localPath, RangeSource source, long size, long lastModified,
+                           String etag, String fileName, String contentType) {
+
+        public static Download ofFile(Path path, String etag, String fileName, String contentType) throws IOException {
+            return new Download(path, null, Files.size(path), Files.getLastModifiedTime(path).toMillis(),
+                    etag, fileName, contentType);
+        }
+
+        /** Opens the whole file for a sequential read; the caller closes it. */
+        public InputStream openStream() throws IOException {
+            return localPath != null ? Files.newInputStream(localPath) : source.open(0, size);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeSource {
+        InputStream open(long offset, long length) throws IOException;
+    }
+}
@@ -1,60 +1,299 @@
 package com.assignmentpoint.service;
 
 import com.assignmentpoint.exception.BadRequestException;
+import com.assignmentpoint.exception.PayloadTooLargeException;
+import com.assignmentpoint.repository.FileBlobRepository;
+import com.assignmentpoint.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.CRC32;
 
+@Slf4j
 @Service
 public class FileStorageService {
-    
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    /** Where blobs lived before storage backends were sharded. */
+    private static final String LEGACY_BLOB_DIR = "blobs";
+
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    private volatile boolean legacyLayoutDrained = false;
+
     @Value("${file.upload-dir:./uploads}")
     private String uploadDir;
-    
-    public String storeFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new BadRequestException("File is empty");
+
+    @Value("${file.max-size:52428800}")
+    private long maxFileSize;
+
+    @Value("${file.allowed-extensions:pdf,doc,docx,txt,jpg,jpeg,png,xlsx,pptx}")
+    private List<String> allowedExtensions;
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Streams an upload into a hidden .part file in the local upload directory, hashing and
+     * counting the bytes as they pass. The extension is checked before anything is
+     * written and the copy stops as soon as file.max-size is crossed. The result must
+     * be handed to commit() or discard().
+     */
+    public StagedFile stage(InputStream in, String originalFilename) {
+        String fileExtension = requireAllowedExtension(originalFilename);
+
+        Path uploadPath = Paths.get(uploadDir);
+        Path partPath = uploadPath.resolve("." + UUID.randomUUID() + ".part");
+        boolean staged = false;
+        try {
+            Files.createDirectories(uploadPath);
+
+            MessageDigest digest = newDigest();
+            CRC32 crc = new CRC32();
+            long size = 0;
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(partPath)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize) {
+                        throw new PayloadTooLargeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("File is empty");
+            }
+
+            staged = true;
+            return new StagedFile(partPath, size, HexFormat.of().formatHex(digest.digest()), fileExtension, crc.getValue());
+
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to store file: " + e.getMessage());
+        } finally {
+            if (!staged) {
+                deleteQuietly(partPath);
+            }
+        }
+    }
+
+    /**
+     * Adds a reference to the blob for the staged content. If the backend already
+     * holds the blob the staged copy is dropped and the upload costs only the metadata
+     * row. Must run in the caller's transaction: the blob row lock taken here keeps a
+     * concurrent release() from deleting the blob before this reference is committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commit(StagedFile staged) {
+        fileBlobRepository.acquire(staged.sha256(), staged.size(), staged.crc32());
+        putBlob(staged.sha256(), staged.path());
+    }
+
+    /**
+     * Stages an existing file for commit() without touching the original: a hard link
+     * where the filesystem allows it, otherwise a copy. Used to adopt files that
+     * predate the blob store; the original is deleted only after the commit succeeds.
+     */
+    public StagedFile stageExisting(Path source, String sha256) {
+        Path partPath = Paths.get(uploadDir).resolve("." + UUID.randomUUID() + ".part");
+        try {
+            try {
+                Files.createLink(partPath, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(source, partPath);
+            }
+            String name = source.getFileName().toString();
+            String extension = name.contains(".") ? name.substring(name.lastIndexOf('.')) : "";
+            return new StagedFile(partPath, Files.size(partPath), sha256, extension, null);
+        } catch (IOException e) {
+            deleteQuietly(partPath);
+            throw new BadRequestException("Failed to stage file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves a blob left in the unsharded blobs/ directory into the backend. Runs under
+     * the blob row lock; returns false when the blob was released in the meantime.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean migrateLegacyBlob(String sha256) {
+        Path legacy = legacyBlobPath(sha256);
+        if (fileBlobRepository.lockBySha256(sha256).isEmpty()) {
+            deleteQuietly(legacy);
+            return false;
+        }
+        putBlob(sha256, legacy);
+        return true;
+    }
+
+    public void discard(StagedFile staged) {
+        deleteQuietly(staged.path());
+    }
+
+    /**
+     * Drops one reference and deletes the blob once nothing points at it. The object
+     * is removed while the blob row is still locked, so a concurrent commit() of the
+     * same content waits and then writes a fresh copy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String sha256) {
+        fileBlobRepository.release(sha256);
+        if (fileBlobRepository.deleteIfUnreferenced(sha256) > 0) {
+            try {
+                storageBackend.delete(sha256);
+            } catch (IOException e) {
+                log.warn("Failed to delete blob {}: {}", sha256, e.getMessage());
+            }
+            deleteQuietly(legacyBlobPath(sha256));
+        }
+    }
+
+    /**
+     * The local file holding a blob, for zero-copy downloads. Until the migration has
+     * drained the old unsharded layout, that location is checked first. Null when the
+     * blob lives in a remote backend.
+     */
+    public Path localBlobPath(String sha256) {
+        if (!legacyLayoutDrained) {
+            Path legacy = legacyBlobPath(sha256);
+            if (Files.exists(legacy)) {
+                return legacy;
+            }
         }
-        
+        return storageBackend.localPath(sha256);
+    }
+
+    public InputStream openBlob(String sha256, long offset, long length) throws IOException {
+        return storageBackend.open(sha256, offset, length);
+    }
+
+    /** Fills in the CRC-32 of a blob stored before it was recorded at upload. */
+    @Transactional
+    public void recordCrc32(String sha256, long crc32) {
+        fileBlobRepository.recordCrc32(sha256, crc32);
+    }
+
+    public Path legacyBlobPath(String sha256) {
+        return Paths.get(uploadDir).resolve(LEGACY_BLOB_DIR).resolve(sha256);
+    }
+
+    /** A fresh hidden .part path in the upload directory, next to where staged uploads go. */
+    Path newPartPath() throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        Files.createDirectories(uploadPath);
+        return uploadPath.resolve("." + UUID.randomUUID() + ".part");
+    }
+
+    /** Parent of the per-session chunk directories used by chunked uploads. */
+    Path chunkStagingRoot() {
+        return Paths.get(uploadDir).resolve(".chunks");
+    }
+
+    public void markLegacyLayoutDrained() {
+        legacyLayoutDrained = true;
+    }
+
+    public String getBackendName() {
+        return storageBackend.name();
+    }
+
+    private void putBlob(String sha256, Path source) {
         try {
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            if (storageBackend.exists(sha256)) {
+                deleteQuietly(source);
+            } else {
+                storageBackend.store(sha256, source);
             }
-            
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : "";
-            String filename = UUID.randomUUID().toString() + fileExtension;
-            
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            return filename;
-            
         } catch (IOException e) {
             throw new BadRequestException("Failed to store file: " + e.getMessage());
         }
     }
-    
+
     public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path path = root.resolve(filename).normalize();
+        if (!path.getParent().equals(root)) {
+            throw new BadRequestException("Invalid file name");
+        }
+        return path;
     }
-    
+
+    /**
+     * Hashes a file already on disk; used to backfill checksums for legacy files
+     * stored before uploads were hashed.
+     */
+    public String sha256(Path path) {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read file: " + e.getMessage());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     public void deleteFile(String filename) {
         try {
             Path filePath = Paths.get(uploadDir).resolve(filename);
             Files.deleteIfExists(filePath);
         } catch (IOException e) {
-            System.err.println("Failed to delete file: " + e.getMessage());
+            log.warn("Failed to delete file {}: {}", filename, e.getMessage());
         }
     }
+
+    /** Returns the lower-cased extension with its dot, or rejects the name. */
+    String requireAllowedExtension(String originalFilename) {
+        int dot = originalFilename != null ? originalFilename.lastIndexOf('.') : -1;
+        String extension = dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        if (!allowedExtensions.contains(extension)) {
+            throw new BadRequestException("File type not allowed. Allowed types: " + String.join(", ", allowedExtensions));
+        }
+        return "." + extension;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** A staged upload; crc32 is null when the bytes were not read while staging. */
+    public record StagedFile(Path path, long size, String sha256, String extension, Long crc32) {
+    }
 }
@@ -1,27 +1,47 @@
 package com.assignmentpoint.service;
 
+import com.assignmentpoint.dto.ChatEvent;
 import com.assignmentpoint.dto.CreateMessageRequest;
 import com.assignmentpoint.dto.MessageDTO;
+import com.assignmentpoint.dto.MessageFeedDTO;
+import com.assignmentpoint.dto.UnreadCountsDTO;
 import com.assignmentpoint.entity.Message;
+import com.assignmentpoint.entity.MessageUnreadCount;
 import com.assignmentpoint.entity.Order;
 import com.assignmentpoint.entity.User;
 import com.assignmentpoint.exception.ResourceNotFoundException;
 import com.assignmentpoint.repository.MessageRepository;
+import com.assignmentpoint.repository.MessageUnreadCountRepository;
 import com.assignmentpoint.repository.OrderRepository;
 import com.assignmentpoint.repository.UserRepository;
+import com.assignmentpoint.util.CursorCodec;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class MessageService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private MessageRepository messageRepository;
 
@@ -31,6 +51,18 @@ public class MessageService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MessageUnreadCountRepository unreadCountRepository;
+
+    @Autowired
+    private UserDisplayNameCache displayNameCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Transactional
     public MessageDTO sendMessage(CreateMessageRequest request) {
         Order order = orderRepository.findById(request.getOrderId())
@@ -51,42 +83,187 @@ public class MessageService {
                 .build();
 
         message = messageRepository.save(message);
-        return convertToDTO(message);
+        if (receiver != null) {
+            unreadCountRepository.adjust(receiver.getId(), order.getId(), 1);
+        }
+        MessageDTO dto = convertToDTO(message);
+
+        // Delivered to /topic/orders/{orderId} by ChatBroadcaster after commit
+        eventPublisher.publishEvent(ChatEvent.builder()
+                .type(ChatEvent.Type.MESSAGE)
+                .orderId(order.getId())
+                .message(dto)
+                .messageId(dto.getId())
+                .build());
+        return dto;
+    }
+
+    /**
+     * "Load older" pagination for an order chat, newest first.
+     */
+    public MessageFeedDTO getOrderMessages(Long orderId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        CursorCodec.Cursor position = CursorCodec.decode(cursor);
+
+        Slice<Message> slice = messageRepository.findOrderPage(
+                orderId,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                PageRequest.of(0, pageSize));
+
+        return toFeed(slice.getContent(), slice.hasNext());
+    }
+
+    /**
+     * Sent and received messages for a user, newest first. One extra row is fetched to
+     * decide whether another page exists.
+     */
+    public MessageFeedDTO getUserMessages(Long userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        CursorCodec.Cursor position = CursorCodec.decode(cursor);
+
+        List<Message> rows = messageRepository.findInboxPage(
+                userId,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        return toFeed(hasMore ? rows.subList(0, pageSize) : rows, hasMore);
     }
 
-    public Page<MessageDTO> getOrderMessages(Long orderId, Pageable pageable) {
-        return messageRepository.findByOrderIdOrderByCreatedAtDesc(orderId, pageable)
-                .map(this::convertToDTO);
+    private int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
-    public Page<MessageDTO> getUserMessages(Long userId, Pageable pageable) {
-        return messageRepository.findBySenderIdOrReceiverId(userId, userId, pageable)
-                .map(this::convertToDTO);
+    private MessageFeedDTO toFeed(List<Message> page, boolean hasMore) {
+        String nextCursor = null;
+        if (hasMore && !page.isEmpty()) {
+            Message last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return MessageFeedDTO.builder()
+                .messages(convertToDTOs(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Transactional
-    public void markMessageAsRead(Long messageId) {
+    public void markMessageAsRead(Long messageId, Long readerId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found"));
+        // Only the receiver can read a message; anyone else is told it does not exist
+        if (message.getReceiver() == null || !message.getReceiver().getId().equals(readerId)) {
+            throw new ResourceNotFoundException("Message not found");
+        }
 
-        message.setIsRead(true);
-        message.setReadAt(LocalDateTime.now());
-        messageRepository.save(message);
-    }
+        LocalDateTime now = LocalDateTime.now();
+        if (messageRepository.markReadIfUnread(messageId, readerId, now) == 0) {
+            return;
+        }
+        unreadCountRepository.adjust(readerId, message.getOrder().getId(), -1);
 
-    private MessageDTO convertToDTO(Message message) {
-        return MessageDTO.builder()
-                .id(message.getId())
+        eventPublisher.publishEvent(ChatEvent.builder()
+                .type(ChatEvent.Type.READ)
                 .orderId(message.getOrder().getId())
-                .senderId(message.getSender().getId())
-                .senderName(message.getSender().getFirstName() + " " + message.getSender().getLastName())
-                .receiverId(message.getReceiver() != null ? message.getReceiver().getId() : null)
-                .receiverName(message.getReceiver() != null ?
-                        message.getReceiver().getFirstName() + " " + message.getReceiver().getLastName() : null)
-                .messageText(message.getMessageText())
-                .isRead(message.getIsRead())
-                .readAt(message.getReadAt())
-                .createdAt(message.getCreatedAt())
+                .messageId(message.getId())
+                .readerId(readerId)
+                .readAt(now)
+                .build());
+    }
+
+    /**
+     * Marks everything the reader received in the order up to upToMessageId as read in
+     * one UPDATE, and sends a single receipt for the whole range.
+     *
+     * @return the number of messages that changed
+     */
+    @Transactional
+    public int markOrderMessagesReadUpTo(Long orderId, Long upToMessageId, Long readerId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = messageRepository.markReadUpTo(orderId, readerId, upToMessageId, now);
+        if (updated == 0) {
+            return 0;
+        }
+        unreadCountRepository.adjust(readerId, orderId, -updated);
+
+        eventPublisher.publishEvent(ChatEvent.builder()
+                .type(ChatEvent.Type.READ_UP_TO)
+                .orderId(orderId)
+                .messageId(upToMessageId)
+                .readerId(readerId)
+                .readAt(now)
+                .build());
+        return updated;
+    }
+
+    public UnreadCountsDTO getUnreadCounts(Long userId) {
+        Map<Long, Long> byOrder = new LinkedHashMap<>();
+        long total = 0;
+        for (MessageUnreadCount row : unreadCountRepository.findUnreadByUserId(userId)) {
+            byOrder.put(row.getOrderId(), row.getUnreadCount());
+            total += row.getUnreadCount();
+        }
+        return UnreadCountsDTO.builder()
+                .total(total)
+                .byOrder(byOrder)
                 .build();
     }
+
+    /**
+     * Seeds the unread counters from the messages table on a fresh deployment. Runs
+     * after the app is serving, so a failure is logged rather than stopping it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiseUnreadCounts() {
+        try {
+            if (unreadCountRepository.count() == 0) {
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> unreadCountRepository.rebuild());
+                log.info("Seeded unread message counters");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to seed unread message counters", e);
+        }
+    }
+
+    private MessageDTO convertToDTO(Message message) {
+        return convertToDTOs(List.of(message)).get(0);
+    }
+
+    /**
+     * Builds DTOs without touching the lazy order, sender and receiver: their ids come
+     * from the proxies, and names come from the shared display-name cache in one batch.
+     */
+    private List<MessageDTO> convertToDTOs(List<Message> messages) {
+        Set<Long> userIds = new HashSet<>();
+        for (Message message : messages) {
+            userIds.add(message.getSender().getId());
+            if (message.getReceiver() != null) {
+                userIds.add(message.getReceiver().getId());
+            }
+        }
+        Map<Long, String> names = displayNameCache.getAll(userIds);
+
+        return messages.stream()
+                .map(message -> {
+                    Long senderId = message.getSender().getId();
+                    Long receiverId = message.getReceiver() != null ? message.getReceiver().getId() : null;
+                    return MessageDTO.builder()
+                            .id(message.getId())
+                            .orderId(message.getOrder().getId())
+                            .senderId(senderId)
+                            .senderName(names.get(senderId))
+                            .receiverId(receiverId)
+                            .receiverName(receiverId != null ? names.get(receiverId) : null)
+                            .messageText(message.getMessageText())
+                            .isRead(message.getIsRead())
+                            .readAt(message.getReadAt())
+                            .createdAt(message.getCreatedAt())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
 }
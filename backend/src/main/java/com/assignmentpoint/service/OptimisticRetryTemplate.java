@@ -0,0 +1,55 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and retries it when the commit loses an
+ * optimistic-lock race. Each attempt re-reads the entity, so the state machine checks
+ * run against the winner's state. Gives up with a ConflictException after a few tries.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 20;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new ConflictException("Order was modified concurrently, please retry");
+                }
+                log.debug("Version conflict, retrying (attempt {})", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = BASE_BACKOFF_MS << (attempt - 1);
+        try {
+            Thread.sleep(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying order update");
+        }
+    }
+}
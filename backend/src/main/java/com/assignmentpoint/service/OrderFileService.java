@@ -5,16 +5,21 @@ import com.assignmentpoint.entity.Order;
 import com.assignmentpoint.entity.OrderFile;
 import com.assignmentpoint.entity.User;
 import com.assignmentpoint.exception.ResourceNotFoundException;
+import com.assignmentpoint.exception.UnauthorizedException;
 import com.assignmentpoint.repository.OrderFileRepository;
 import com.assignmentpoint.repository.OrderRepository;
 import com.assignmentpoint.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,23 +37,39 @@ public class OrderFileService {
     @Autowired
     private FileStorageService fileStorageService;
     
+    public void requireOrder(Long orderId) {
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+    }
+    
+    /**
+     * Records a file that has already been streamed into staging and adds it to the
+     * blob store; content that is already stored becomes a metadata-only insert. Each
+     * row gets its own download name so files keep their per-order metadata even when
+     * they share bytes. The staged copy is discarded if the order or uploader is missing.
+     */
     @Transactional
-    public OrderFileDTO uploadFile(Long orderId, Long userId, MultipartFile file, String category) {
-        Order order = orderRepository.findById(orderId)
-            .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public OrderFileDTO uploadFile(Long orderId, Long userId, FileStorageService.StagedFile staged,
+                                   String originalFilename, String contentType, String category) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        User user = userRepository.findById(userId).orElse(null);
+        if (order == null || user == null) {
+            fileStorageService.discard(staged);
+            throw new ResourceNotFoundException(order == null ? "Order not found" : "User not found");
+        }
         
-        String filename = fileStorageService.storeFile(file);
+        fileStorageService.commit(staged);
         
         OrderFile orderFile = OrderFile.builder()
             .order(order)
             .uploadedBy(user)
-            .fileName(file.getOriginalFilename())
-            .fileUrl("/files/" + filename)
-            .fileSize(file.getSize())
-            .fileType(file.getContentType())
+            .fileName(originalFilename)
+            .fileUrl("/files/" + UUID.randomUUID() + staged.extension())
+            .fileSize(staged.size())
+            .sha256(staged.sha256())
+            .storedAsBlob(true)
+            .fileType(contentType)
             .fileCategory(category)
             .uploadedAt(LocalDateTime.now())
             .build();
@@ -57,6 +78,85 @@ public class OrderFileService {
         return convertToDTO(orderFile);
     }
     
+    /**
+     * Deletes a file row and drops its blob reference; the bytes go with the last
+     * reference. Only the uploader or an admin may delete.
+     */
+    @Transactional
+    public void deleteFile(Long fileId, Long userId, boolean isAdmin) {
+        OrderFile file = orderFileRepository.findById(fileId)
+            .orElseThrow(() -> new ResourceNotFoundException("File not found"));
+        
+        if (!isAdmin && !file.getUploadedBy().getId().equals(userId)) {
+            throw new UnauthorizedException("Only the uploader or an admin can delete this file");
+        }
+        
+        orderFileRepository.delete(file);
+        orderFileRepository.flush();
+        if (Boolean.TRUE.equals(file.getStoredAsBlob())) {
+            fileStorageService.release(file.getSha256());
+        } else {
+            fileStorageService.deleteFile(storedName(file));
+        }
+    }
+    
+    /**
+     * Looks up a stored file for download. Blob-backed rows are served from the
+     * storage backend; legacy rows whose bytes still sit in the flat upload directory
+     * get their checksum computed once here and saved.
+     */
+    @Transactional
+    public FileDownloadService.Download resolveDownload(String filename) throws IOException {
+        OrderFile orderFile = orderFileRepository.findFirstByFileUrl("/files/" + filename).orElse(null);
+        
+        if (orderFile == null) {
+            Path path = fileStorageService.loadFile(filename);
+            if (!Files.isRegularFile(path)) {
+                throw new ResourceNotFoundException("File not found");
+            }
+            return FileDownloadService.Download.ofFile(path, null, filename, null);
+        }
+        
+        FileDownloadService.Download download = toDownload(orderFile);
+        if (download.etag() == null) {
+            orderFile.setSha256(fileStorageService.sha256(download.localPath()));
+            orderFileRepository.save(orderFile);
+            return FileDownloadService.Download.ofFile(download.localPath(), orderFile.getSha256(),
+                orderFile.getFileName(), orderFile.getFileType());
+        }
+        return download;
+    }
+    
+    /**
+     * Where an order file's bytes live: the local blob or legacy flat file when there
+     * is one, otherwise a range source over the remote backend. Throws
+     * ResourceNotFoundException when a local file is gone.
+     */
+    public FileDownloadService.Download toDownload(OrderFile orderFile) throws IOException {
+        if (Boolean.TRUE.equals(orderFile.getStoredAsBlob())) {
+            String sha256 = orderFile.getSha256();
+            Path local = fileStorageService.localBlobPath(sha256);
+            if (local != null) {
+                if (!Files.isRegularFile(local)) {
+                    throw new ResourceNotFoundException("File not found");
+                }
+                return FileDownloadService.Download.ofFile(local, sha256, orderFile.getFileName(), orderFile.getFileType());
+            }
+            long lastModified = orderFile.getUploadedAt() != null
+                ? orderFile.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+            return new FileDownloadService.Download(null,
+                (offset, length) -> fileStorageService.openBlob(sha256, offset, length),
+                orderFile.getFileSize(), lastModified, sha256, orderFile.getFileName(), orderFile.getFileType());
+        }
+        
+        Path path = fileStorageService.loadFile(storedName(orderFile));
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        return FileDownloadService.Download.ofFile(path, orderFile.getSha256(), orderFile.getFileName(), orderFile.getFileType());
+    }
+    
     public List<OrderFileDTO> getOrderFiles(Long orderId) {
         return orderFileRepository.findByOrderId(orderId).stream()
             .map(this::convertToDTO)
@@ -73,6 +173,10 @@ public class OrderFileService {
         orderFileRepository.save(file);
     }
     
+    private String storedName(OrderFile file) {
+        return file.getFileUrl().substring(file.getFileUrl().lastIndexOf('/') + 1);
+    }
+    
     private OrderFileDTO convertToDTO(OrderFile file) {
         return OrderFileDTO.builder()
             .id(file.getId())
@@ -82,6 +186,7 @@ public class OrderFileService {
             .fileName(file.getFileName())
             .fileUrl(file.getFileUrl())
             .fileSize(file.getFileSize())
+            .sha256(file.getSha256())
             .fileType(file.getFileType())
             .fileCategory(file.getFileCategory())
             .isSeen(file.getIsSeen())
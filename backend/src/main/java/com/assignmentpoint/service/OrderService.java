@@ -2,10 +2,15 @@ package com.assignmentpoint.service;
 
 import com.assignmentpoint.dto.CreateOrderRequest;
 import com.assignmentpoint.dto.OrderDTO;
+import com.assignmentpoint.dto.OrderFeedDTO;
 import com.assignmentpoint.entity.*;
+import com.assignmentpoint.exception.BadRequestException;
 import com.assignmentpoint.exception.ResourceNotFoundException;
 import com.assignmentpoint.repository.*;
+import com.assignmentpoint.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +20,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
@@ -23,6 +29,11 @@ public class OrderService {
     private final CustomerRepository customerRepository;
     private final WriterRepository writerRepository;
     private final TransactionRepository transactionRepository;
+    private final OrderStatsService orderStatsService;
+    private final OptimisticRetryTemplate retryTemplate;
+
+    private static final int DEFAULT_FEED_SIZE = 20;
+    private static final int MAX_FEED_SIZE = 100;
 
     @Transactional
     public OrderDTO createOrder(Long customerId, CreateOrderRequest request) {
@@ -54,15 +65,9 @@ public class OrderService {
                 .build();
 
         order = orderRepository.save(order);
+        orderStatsService.recordCreated(order);
 
-        Integer totalOrders = customer.getTotalOrders() != null ? customer.getTotalOrders() : 0;
-        customer.setTotalOrders(totalOrders + 1);
-
-        Boolean isReturning = customer.getIsReturning() != null ? customer.getIsReturning() : false;
-        if (!isReturning && customer.getTotalOrders() > 1) {
-            customer.setIsReturning(true);
-        }
-        customerRepository.save(customer);
+        customerRepository.incrementTotalOrders(customer.getId());
 
         return convertToDTO(order);
     }
@@ -74,89 +79,154 @@ public class OrderService {
     }
 
     public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderRepository.findAllForListing().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    public List<OrderDTO> getAvailableOrders() {
-        return orderRepository.findAvailableOrders().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Keyset-paginated marketplace feed ordered by (createdAt, id) descending.
+     * One extra row is fetched to decide whether another page exists.
+     */
+    public OrderFeedDTO getAvailableOrders(String cursor, Integer size, String subject, String educationLevel,
+                                           String type, LocalDateTime deadlineFrom, LocalDateTime deadlineTo) {
+        int pageSize = size == null ? DEFAULT_FEED_SIZE : Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        CursorCodec.Cursor position = CursorCodec.decode(cursor);
+
+        List<Order> rows = orderRepository.findAvailableOrdersPage(
+                blankToNull(subject),
+                blankToNull(educationLevel),
+                blankToNull(type),
+                deadlineFrom,
+                deadlineTo,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Order> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return OrderFeedDTO.builder()
+                .orders(page.stream().map(this::convertToDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
     public List<OrderDTO> getOrdersByCustomer(Long customerId) {
-        return orderRepository.findByCustomerId(customerId).stream()
+        return orderRepository.findByCustomerIdForListing(customerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     public List<OrderDTO> getOrdersByWriter(Long writerId) {
-        return orderRepository.findByWriterId(writerId).stream()
+        return orderRepository.findByWriterIdForListing(writerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Moves an order along the status state machine. Runs under optimistic locking and
+     * is retried on a version conflict, so concurrent callers re-validate against the
+     * latest status instead of overwriting each other.
+     */
     public OrderDTO updateOrderStatus(Long orderId, Order.OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        order.setStatus(status);
-
-        switch (status) {
-            case IN_PROGRESS:
-                if (order.getStartedAt() == null) {
-                    order.setStartedAt(LocalDateTime.now());
-                }
-                break;
-            case IN_REVIEW:
-                order.setSubmittedAt(LocalDateTime.now());
-                break;
-            case COMPLETED:
-                order.setCompletedAt(LocalDateTime.now());
-                // Release funds to writer when order is completed
-                releaseWriterEarnings(order);
-                break;
-        }
-
-        order = orderRepository.save(order);
-        return convertToDTO(order);
+        return retryTemplate.execute(() -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+            requireTransition(order, status);
+            OrderStatsService.Snapshot before = orderStatsService.capture(order);
+            order.setStatus(status);
+
+            switch (status) {
+                case IN_PROGRESS:
+                    if (order.getStartedAt() == null) {
+                        order.setStartedAt(LocalDateTime.now());
+                    }
+                    break;
+                case IN_REVIEW:
+                    order.setSubmittedAt(LocalDateTime.now());
+                    break;
+                case COMPLETED:
+                    // Write-once, so a re-completed order stays in its original revenue bucket
+                    if (order.getCompletedAt() == null) {
+                        order.setCompletedAt(LocalDateTime.now());
+                    }
+                    // Release funds to writer when order is completed
+                    releaseWriterEarnings(order);
+                    break;
+            }
+
+            order = orderRepository.saveAndFlush(order);
+            orderStatsService.recordChange(before, order);
+            return convertToDTO(order);
+        });
     }
 
-    @Transactional
     public OrderDTO assignWriter(Long orderId, Long writerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        Writer writer = writerRepository.findById(writerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Writer not found"));
-
-        order.setWriter(writer);
-        order.setWriterManager(writer.getWriterManager());
-        order.setStatus(Order.OrderStatus.IN_PROGRESS);
-        order.setStartedAt(LocalDateTime.now());
+        return retryTemplate.execute(() -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+            Writer writer = writerRepository.findById(writerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Writer not found"));
+
+            // Reassigning an order that is already in progress is allowed
+            if (order.getStatus() != Order.OrderStatus.IN_PROGRESS) {
+                requireTransition(order, Order.OrderStatus.IN_PROGRESS);
+            }
+
+            OrderStatsService.Snapshot before = orderStatsService.capture(order);
+            order.setWriter(writer);
+            order.setWriterManager(writer.getWriterManager());
+            order.setStatus(Order.OrderStatus.IN_PROGRESS);
+            order.setStartedAt(LocalDateTime.now());
+
+            order = orderRepository.saveAndFlush(order);
+            orderStatsService.recordChange(before, order);
+            return convertToDTO(order);
+        });
+    }
 
-        order = orderRepository.save(order);
-        return convertToDTO(order);
+    void requireTransition(Order order, Order.OrderStatus status) {
+        if (!order.getStatus().canTransitionTo(status)) {
+            throw new BadRequestException("Cannot move order from " + order.getStatus() + " to " + status);
+        }
     }
 
     /**
      * Release funds to writer when order is marked as completed
      * Records earnings in the Transaction table for audit trail
+     * Skipped if the order already has a writer earning, so re-completing never double-credits
      */
 //    @Transactional
     private void releaseWriterEarnings(Order order) {
         if (order.getWriter() == null) {
-            System.out.println("[v0] OrderService: Order " + order.getId() + " has no writer assigned");
+            log.debug("Order {} has no writer assigned", order.getId());
+            return;
+        }
+
+        if (transactionRepository.existsByOrderIdAndTransactionType(order.getId(), Transaction.TransactionType.WRITER_EARNING)) {
+            log.debug("Earnings for order {} already released", order.getOrderNumber());
             return;
         }
 
         Writer writer = order.getWriter();
         BigDecimal writerEarnings = order.getTotalAmount();
 
-        System.out.println("[v0] OrderService: Releasing writer earnings for order " + order.getOrderNumber() +
-                ", writer: " + writer.getUser().getEmail() + ", amount: " + writerEarnings);
+        log.debug("Releasing writer earnings for order {}, writer: {}, amount: {}",
+                order.getOrderNumber(), writer.getUser().getEmail(), writerEarnings);
 
         try {
             // Create transaction record for writer earnings (audit trail)
@@ -170,18 +240,14 @@ public class OrderService {
                     .build();
 
             transactionRepository.save(transaction);
-            System.out.println("[v0] OrderService: Writer earning transaction recorded with ID: " + transaction.getId());
+            log.debug("Writer earning transaction recorded with ID: {}", transaction.getId());
 
-            // Update writer's wallet balance
-            BigDecimal currentBalance = writer.getWalletBalance() != null ? writer.getWalletBalance() : BigDecimal.ZERO;
-            BigDecimal newBalance = currentBalance.add(writerEarnings);
-            writer.setWalletBalance(newBalance);
-            writerRepository.save(writer);
+            // Update writer's wallet balance in place so concurrent credits are not lost
+            writerRepository.creditWallet(writer.getId(), writerEarnings);
 
-            System.out.println("[v0] OrderService: Writer wallet updated. New balance: " + newBalance);
+            log.debug("Writer wallet credited with {}", writerEarnings);
         } catch (Exception e) {
-            System.err.println("[v0] OrderService: Error releasing writer earnings: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error releasing writer earnings for order {}", order.getOrderNumber(), e);
             throw new RuntimeException("Failed to release writer earnings: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,140 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.PlatformOrderRollup;
+import com.assignmentpoint.entity.UserOrderStats;
+import com.assignmentpoint.repository.PlatformOrderRollupRepository;
+import com.assignmentpoint.repository.UserOrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the user_order_stats counters and the platform_order_rollup in step with
+ * order writes. Callers capture a snapshot before mutating an order and hand it
+ * back after saving; only the cells that actually changed are adjusted.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    private final UserOrderStatsRepository statsRepository;
+    private final PlatformOrderRollupRepository rollupRepository;
+    private final RevenueAggregationService revenueAggregationService;
+
+    public Snapshot capture(Order order) {
+        return new Snapshot(
+                order.getStatus(),
+                order.getTotalAmount(),
+                order.getCustomer() != null ? order.getCustomer().getId() : null,
+                order.getWriter() != null ? order.getWriter().getId() : null,
+                order.getEditor() != null ? order.getEditor().getId() : null);
+    }
+
+    @Transactional
+    public void recordCreated(Order order) {
+        recordChange(Snapshot.NONE, order);
+    }
+
+    @Transactional
+    public void recordChange(Snapshot before, Order order) {
+        recordTransition(before, capture(order));
+        boolean wasCompleted = before.status() == Order.OrderStatus.COMPLETED;
+        boolean isCompleted = order.getStatus() == Order.OrderStatus.COMPLETED;
+        if (wasCompleted != isCompleted && order.getCompletedAt() != null) {
+            revenueAggregationService.evict(order.getCompletedAt());
+        }
+    }
+
+    /**
+     * For writes done with bulk UPDATEs, where the managed Order does not reflect the
+     * new state and the caller supplies it directly.
+     */
+    @Transactional
+    public void recordTransition(Snapshot before, Snapshot after) {
+        adjust(UserOrderStats.PartyType.CUSTOMER, before.status(), before.customerId(), after.status(), after.customerId());
+        adjust(UserOrderStats.PartyType.WRITER, before.status(), before.writerId(), after.status(), after.writerId());
+        adjust(UserOrderStats.PartyType.EDITOR, before.status(), before.editorId(), after.status(), after.editorId());
+        adjustPlatform(before, after);
+    }
+
+    public Map<Order.OrderStatus, Long> getCounts(UserOrderStats.PartyType partyType, Long partyId) {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (UserOrderStats row : statsRepository.findByPartyTypeAndPartyId(partyType, partyId)) {
+            counts.put(row.getStatus(), row.getOrderCount());
+        }
+        return counts;
+    }
+
+    public List<PlatformOrderRollup> getPlatformRollup() {
+        return rollupRepository.findAll();
+    }
+
+    /**
+     * Recomputes every counter and the platform rollup from the orders table. Runs
+     * automatically on empty tables so a fresh deployment starts with correct numbers.
+     */
+    @Transactional
+    public void rebuild() {
+        statsRepository.deleteAllInBatch();
+        statsRepository.rebuildCustomerCounts();
+        statsRepository.rebuildWriterCounts();
+        statsRepository.rebuildEditorCounts();
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialiseIfEmpty() {
+        if (statsRepository.count() == 0 || rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    private void adjust(UserOrderStats.PartyType partyType,
+                        Order.OrderStatus oldStatus, Long oldPartyId,
+                        Order.OrderStatus newStatus, Long newPartyId) {
+        if (oldStatus == newStatus && Objects.equals(oldPartyId, newPartyId)) {
+            return;
+        }
+        if (oldStatus != null && oldPartyId != null) {
+            statsRepository.adjust(partyType.name(), oldPartyId, oldStatus.name(), -1);
+        }
+        if (newStatus != null && newPartyId != null) {
+            statsRepository.adjust(partyType.name(), newPartyId, newStatus.name(), 1);
+        }
+    }
+
+    private void adjustPlatform(Snapshot before, Snapshot after) {
+        if (before.status() == after.status() && Objects.equals(before.totalAmount(), after.totalAmount())) {
+            return;
+        }
+        if (before.status() != null) {
+            rollupRepository.adjust(before.status().name(), -1, amountOf(before).negate());
+        }
+        if (after.status() != null) {
+            rollupRepository.adjust(after.status().name(), 1, amountOf(after));
+        }
+    }
+
+    private BigDecimal amountOf(Snapshot snapshot) {
+        return snapshot.totalAmount() != null ? snapshot.totalAmount() : BigDecimal.ZERO;
+    }
+
+    public record Snapshot(Order.OrderStatus status, BigDecimal totalAmount,
+                           Long customerId, Long writerId, Long editorId) {
+        static final Snapshot NONE = new Snapshot(null, null, null, null, null);
+    }
+}
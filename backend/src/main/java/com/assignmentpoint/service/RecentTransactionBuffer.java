@@ -0,0 +1,90 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.TransactionDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recently completed transactions. Writers are rare (one
+ * per status change, plus the periodic reload) and take a short lock, so dropping an
+ * older copy and writing the new slot happen together and each transaction id appears
+ * at most once. Readers take no lock: they walk backwards from the head and skip
+ * slots that are still being filled or were cleared.
+ *
+ * The ring only sees commits made on this node. RevenueService reloads it from the
+ * database on a short interval, which bounds how stale it can be on any node.
+ */
+@Component
+public class RecentTransactionBuffer {
+
+    private static final int CAPACITY = 256;
+
+    private final AtomicReferenceArray<TransactionDTO> slots = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong head = new AtomicLong(0);
+
+    private final Object writeLock = new Object();
+
+    public void add(TransactionDTO transaction) {
+        synchronized (writeLock) {
+            clear(transaction.getId());
+            long sequence = head.getAndIncrement();
+            slots.set((int) (sequence % CAPACITY), transaction);
+        }
+    }
+
+    /** Clears the slot holding the transaction; a no-op when it has aged out. */
+    public void remove(Long transactionId) {
+        if (transactionId == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            clear(transactionId);
+        }
+    }
+
+    /**
+     * Replaces the contents with a fresh read from the database, newest first. A commit
+     * recorded while that read was in flight may be dropped until the next reload.
+     */
+    public void replace(List<TransactionDTO> newestFirst) {
+        synchronized (writeLock) {
+            for (int i = 0; i < CAPACITY; i++) {
+                slots.set(i, null);
+            }
+            for (int i = Math.min(newestFirst.size(), CAPACITY) - 1; i >= 0; i--) {
+                add(newestFirst.get(i));
+            }
+        }
+    }
+
+    public List<TransactionDTO> latest(int limit) {
+        long end = head.get();
+        int wanted = Math.min(limit, CAPACITY);
+        long oldest = Math.max(0, end - CAPACITY);
+        List<TransactionDTO> result = new ArrayList<>(wanted);
+        for (long sequence = end - 1; sequence >= oldest && result.size() < wanted; sequence--) {
+            TransactionDTO transaction = slots.get((int) (sequence % CAPACITY));
+            if (transaction != null) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    public int capacity() {
+        return CAPACITY;
+    }
+
+    private void clear(Long transactionId) {
+        for (int i = 0; i < CAPACITY; i++) {
+            TransactionDTO current = slots.get(i);
+            if (current != null && transactionId.equals(current.getId())) {
+                slots.set(i, null);
+            }
+        }
+    }
+}
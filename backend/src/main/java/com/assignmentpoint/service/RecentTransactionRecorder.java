@@ -0,0 +1,56 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.TransactionDTO;
+import com.assignmentpoint.entity.Transaction;
+import com.assignmentpoint.entity.TransactionStatusListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the RecentTransactionBuffer in step with transaction status changes once the
+ * surrounding database transaction commits: a transaction is added when it becomes
+ * COMPLETED and dropped when it leaves COMPLETED. The DTO is built straight away,
+ * while the entity's session is still open.
+ */
+@Component
+public class RecentTransactionRecorder {
+
+    private final RecentTransactionBuffer buffer;
+    private final ObjectProvider<TransactionService> transactionService;
+
+    public RecentTransactionRecorder(RecentTransactionBuffer buffer,
+                                     ObjectProvider<TransactionService> transactionService) {
+        this.buffer = buffer;
+        this.transactionService = transactionService;
+    }
+
+    @EventListener
+    public void onStatusChanged(TransactionStatusListener.StatusChanged event) {
+        Transaction transaction = event.transaction();
+
+        Runnable update;
+        if (transaction.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+            TransactionDTO dto = transactionService.getObject().convertToDTO(transaction);
+            update = () -> buffer.add(dto);
+        } else if (event.previous() == Transaction.TransactionStatus.COMPLETED) {
+            Long id = transaction.getId();
+            update = () -> buffer.remove(id);
+        } else {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
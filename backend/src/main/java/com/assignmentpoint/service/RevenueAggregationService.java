@@ -0,0 +1,232 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.RevenueAggregate;
+import com.assignmentpoint.entity.RevenueRule;
+import com.assignmentpoint.repository.OrderRepository;
+import com.assignmentpoint.repository.RevenueRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates completed-order revenue in the database, split by new vs returning
+ * customer, and applies the active RevenueRule percentages to each segment.
+ *
+ * Sums are cached per calendar month and, for the current month, per day, keyed by
+ * the write-once completion time. Only buckets that have closed are cached and
+ * today's bucket is queried on every call. A closed bucket still changes when an
+ * order in it is disputed or re-completed, so OrderStatsService evicts it after any
+ * commit that moves an order into or out of COMPLETED.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevenueAggregationService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final OrderRepository orderRepository;
+    private final RevenueRuleRepository revenueRuleRepository;
+
+    private final Map<YearMonth, Bucket> closedMonths = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Bucket> closedDays = new ConcurrentHashMap<>();
+    private volatile YearMonth firstMonth;
+    /** Bumped by every eviction so a bucket queried while one ran is not cached stale. */
+    private long generation;
+
+    /**
+     * Orders completed before completion was timestamped get their updatedAt copied
+     * into completed_at once, so the revenue query can filter on the column itself
+     * and use the (status, completed_at) index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCompletionTimes() {
+        int filled = orderRepository.backfillCompletedAt();
+        if (filled > 0) {
+            log.info("Backfilled completed_at for {} orders", filled);
+            clear();
+        }
+    }
+
+    /**
+     * Drops the cached buckets holding completedAt. Deferred to after commit when
+     * called in a transaction, so a concurrent read cannot re-cache the old sum.
+     */
+    public void evict(LocalDateTime completedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(completedAt);
+                }
+            });
+        } else {
+            evictNow(completedAt);
+        }
+    }
+
+    private synchronized void evictNow(LocalDateTime completedAt) {
+        generation++;
+        closedMonths.remove(YearMonth.from(completedAt));
+        closedDays.remove(completedAt.toLocalDate());
+        // A re-completed order may predate the first month seen so far
+        firstMonth = null;
+    }
+
+    private synchronized void clear() {
+        generation++;
+        closedMonths.clear();
+        closedDays.clear();
+        firstMonth = null;
+    }
+
+    public RevenueSplit getAllTimeSplit() {
+        LocalDate today = LocalDate.now();
+        YearMonth currentMonth = YearMonth.from(today);
+        closedDays.keySet().removeIf(day -> YearMonth.from(day).isBefore(currentMonth));
+
+        Bucket total = Bucket.EMPTY;
+        YearMonth start = getFirstMonth();
+        if (start != null) {
+            for (YearMonth month = start; month.isBefore(currentMonth); month = month.plusMonths(1)) {
+                total = total.plus(closedMonth(month));
+            }
+        }
+        for (LocalDate day = currentMonth.atDay(1); day.isBefore(today); day = day.plusDays(1)) {
+            total = total.plus(closedDay(day));
+        }
+        total = total.plus(query(today.atStartOfDay(), today.plusDays(1).atStartOfDay()));
+
+        return split(total);
+    }
+
+    private YearMonth getFirstMonth() {
+        if (firstMonth == null) {
+            LocalDateTime first = orderRepository.findFirstCompletionTime();
+            if (first != null) {
+                firstMonth = YearMonth.from(first);
+            }
+        }
+        return firstMonth;
+    }
+
+    private Bucket closedMonth(YearMonth month) {
+        Bucket cached = closedMonths.get(month);
+        if (cached == null) {
+            long seen = currentGeneration();
+            cached = query(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            cacheIfUnchanged(closedMonths, month, cached, seen);
+        }
+        return cached;
+    }
+
+    private Bucket closedDay(LocalDate day) {
+        Bucket cached = closedDays.get(day);
+        if (cached == null) {
+            long seen = currentGeneration();
+            cached = query(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            cacheIfUnchanged(closedDays, day, cached, seen);
+        }
+        return cached;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized <K> void cacheIfUnchanged(Map<K, Bucket> cache, K key, Bucket bucket, long seen) {
+        if (generation == seen) {
+            cache.putIfAbsent(key, bucket);
+        }
+    }
+
+    private Bucket query(LocalDateTime from, LocalDateTime to) {
+        Bucket bucket = Bucket.EMPTY;
+        for (RevenueAggregate row : orderRepository.sumCompletedRevenue(from, to)) {
+            BigDecimal revenue = row.getRevenue() != null ? row.getRevenue() : BigDecimal.ZERO;
+            long orders = row.getOrders() != null ? row.getOrders() : 0L;
+            bucket = Boolean.TRUE.equals(row.getReturning())
+                    ? bucket.plus(new Bucket(BigDecimal.ZERO, 0, revenue, orders))
+                    : bucket.plus(new Bucket(revenue, orders, BigDecimal.ZERO, 0));
+        }
+        return bucket;
+    }
+
+    private RevenueSplit split(Bucket bucket) {
+        RevenueRule newRule = ruleFor(false);
+        RevenueRule returningRule = ruleFor(true);
+        BigDecimal newRevenue = bucket.newRevenue();
+        BigDecimal returningRevenue = bucket.returningRevenue();
+
+        return new RevenueSplit(
+                newRevenue.add(returningRevenue),
+                share(newRevenue, newRule.getWriterPercentage()).add(share(returningRevenue, returningRule.getWriterPercentage())),
+                share(newRevenue, newRule.getProfitPercentage()).add(share(returningRevenue, returningRule.getProfitPercentage())),
+                share(newRevenue, newRule.getSalesAgentPercentage()).add(share(returningRevenue, returningRule.getSalesAgentPercentage())),
+                share(newRevenue, newRule.getManagerPercentage()).add(share(returningRevenue, returningRule.getManagerPercentage())),
+                share(newRevenue, newRule.getEditorPercentage()).add(share(returningRevenue, returningRule.getEditorPercentage())),
+                newRevenue,
+                returningRevenue,
+                bucket.newOrders() + bucket.returningOrders());
+    }
+
+    private RevenueRule ruleFor(boolean returningCustomer) {
+        return revenueRuleRepository.findByIsReturningCustomerAndIsActive(returningCustomer, true)
+                .orElseGet(RevenueAggregationService::defaultRule);
+    }
+
+    /**
+     * The split used before revenue rules were configurable.
+     */
+    private static RevenueRule defaultRule() {
+        return RevenueRule.builder()
+                .writerPercentage(BigDecimal.valueOf(40))
+                .profitPercentage(BigDecimal.valueOf(30))
+                .salesAgentPercentage(BigDecimal.valueOf(15))
+                .managerPercentage(BigDecimal.valueOf(15))
+                .editorPercentage(BigDecimal.ZERO)
+                .build();
+    }
+
+    private BigDecimal share(BigDecimal revenue, BigDecimal percentage) {
+        if (percentage == null) {
+            return BigDecimal.ZERO;
+        }
+        return revenue.multiply(percentage).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+
+    private record Bucket(BigDecimal newRevenue, long newOrders, BigDecimal returningRevenue, long returningOrders) {
+        static final Bucket EMPTY = new Bucket(BigDecimal.ZERO, 0, BigDecimal.ZERO, 0);
+
+        Bucket plus(Bucket other) {
+            return new Bucket(
+                    newRevenue.add(other.newRevenue), newOrders + other.newOrders,
+                    returningRevenue.add(other.returningRevenue), returningOrders + other.returningOrders);
+        }
+    }
+
+    public record RevenueSplit(BigDecimal totalRevenue,
+                               BigDecimal writerShare,
+                               BigDecimal platformShare,
+                               BigDecimal agentShare,
+                               BigDecimal managerShare,
+                               BigDecimal editorShare,
+                               BigDecimal newCustomerRevenue,
+                               BigDecimal returningCustomerRevenue,
+                               long totalOrders) {
+    }
+}
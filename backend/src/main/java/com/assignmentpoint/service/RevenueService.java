@@ -1,16 +1,22 @@
 package com.assignmentpoint.service;
 
 import com.assignmentpoint.dto.TransactionDTO;
-import com.assignmentpoint.entity.Order;
 import com.assignmentpoint.entity.Transaction;
-import com.assignmentpoint.repository.OrderRepository;
 import com.assignmentpoint.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
 public class RevenueService {
 
@@ -18,59 +24,96 @@ public class RevenueService {
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private RecentTransactionBuffer recentTransactionBuffer;
+
+    @Autowired
+    private RevenueAggregationService revenueAggregationService;
+
+    @Value("${revenue.recent-transactions.refresh-seconds:30}")
+    private long recentTransactionsRefreshSeconds;
+
+    private final ScheduledExecutorService recentTransactionsRefresher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "recent-transactions-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     public Map<String, Object> getRevenueMetrics() {
         Map<String, Object> metrics = new HashMap<>();
 
-        // Total Revenue from completed orders
-        List<Order> completedOrders = orderRepository.findByStatus(Order.OrderStatus.COMPLETED);
-        BigDecimal totalRevenue = completedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        RevenueAggregationService.RevenueSplit split = revenueAggregationService.getAllTimeSplit();
 
-        // Calculate splits based on revenue rules
-        BigDecimal writerEarnings = totalRevenue.multiply(BigDecimal.valueOf(0.4)); // 40% to writers
-        BigDecimal platformProfit = totalRevenue.multiply(BigDecimal.valueOf(0.3)); // 30% platform profit
-        BigDecimal agentCommissions = totalRevenue.multiply(BigDecimal.valueOf(0.15)); // 15% to agents
-        BigDecimal managerEarnings = totalRevenue.multiply(BigDecimal.valueOf(0.15)); // 15% to managers
-
-        metrics.put("totalRevenue", totalRevenue);
-        metrics.put("writerEarnings", writerEarnings);
-        metrics.put("platformProfit", platformProfit);
-        metrics.put("agentCommissions", agentCommissions);
-        metrics.put("managerEarnings", managerEarnings);
+        metrics.put("totalRevenue", split.totalRevenue());
+        metrics.put("writerEarnings", split.writerShare());
+        metrics.put("platformProfit", split.platformShare());
+        metrics.put("agentCommissions", split.agentShare());
+        metrics.put("managerEarnings", split.managerShare());
+        metrics.put("editorEarnings", split.editorShare());
 
         return metrics;
     }
 
+    /**
+     * Served from the in-memory ring when the limit fits in it; larger requests fall
+     * back to the (status, created_at) index.
+     */
     public List<TransactionDTO> getRecentTransactions(int limit) {
-        List<Transaction> transactions = transactionRepository.findAll();
-        List<TransactionDTO> result = new ArrayList<>();
+        if (limit <= recentTransactionBuffer.capacity()) {
+            List<TransactionDTO> latest = recentTransactionBuffer.latest(limit);
+            // Short when entries were dropped after leaving COMPLETED
+            if (latest.size() == limit) {
+                return latest;
+            }
+        }
+        return loadRecentTransactions(limit);
+    }
 
-        transactions.stream()
-                .filter(t -> t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .sorted(Comparator.comparing(Transaction::getCreatedAt).reversed())
-                .limit(limit)
-                .forEach(t -> result.add(convertToDTO(t)));
+    /**
+     * Seeds the ring before traffic arrives, then reloads it on an interval so commits
+     * made on other nodes show up here within refresh-seconds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmRecentTransactions() {
+        reloadRecentTransactions();
+        recentTransactionsRefresher.scheduleWithFixedDelay(this::reloadRecentTransactions,
+                recentTransactionsRefreshSeconds, recentTransactionsRefreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        recentTransactionsRefresher.shutdownNow();
+    }
 
+    private void reloadRecentTransactions() {
+        try {
+            recentTransactionBuffer.replace(loadRecentTransactions(recentTransactionBuffer.capacity()));
+        } catch (Exception e) {
+            log.warn("Failed to reload recent transactions", e);
+        }
+    }
+
+    private List<TransactionDTO> loadRecentTransactions(int limit) {
+        List<TransactionDTO> result = new ArrayList<>();
+        transactionRepository.findLatestByStatus(Transaction.TransactionStatus.COMPLETED, PageRequest.of(0, limit))
+                .forEach(t -> result.add(convertToDTO(t)));
         return result;
     }
 
     public Map<String, Object> getRevenueBreakdown() {
         Map<String, Object> breakdown = new HashMap<>();
 
-        List<Order> completedOrders = orderRepository.findByStatus(Order.OrderStatus.COMPLETED);
-        BigDecimal totalRevenue = completedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        breakdown.put("totalRevenue", totalRevenue);
-        breakdown.put("writerShare", totalRevenue.multiply(BigDecimal.valueOf(0.4)));
-        breakdown.put("platformShare", totalRevenue.multiply(BigDecimal.valueOf(0.3)));
-        breakdown.put("agentShare", totalRevenue.multiply(BigDecimal.valueOf(0.15)));
-        breakdown.put("managerShare", totalRevenue.multiply(BigDecimal.valueOf(0.15)));
-        breakdown.put("totalOrders", (long) completedOrders.size());
+        RevenueAggregationService.RevenueSplit split = revenueAggregationService.getAllTimeSplit();
+
+        breakdown.put("totalRevenue", split.totalRevenue());
+        breakdown.put("writerShare", split.writerShare());
+        breakdown.put("platformShare", split.platformShare());
+        breakdown.put("agentShare", split.agentShare());
+        breakdown.put("managerShare", split.managerShare());
+        breakdown.put("editorShare", split.editorShare());
+        breakdown.put("newCustomerRevenue", split.newCustomerRevenue());
+        breakdown.put("returningCustomerRevenue", split.returningCustomerRevenue());
+        breakdown.put("totalOrders", split.totalOrders());
 
         return breakdown;
     }
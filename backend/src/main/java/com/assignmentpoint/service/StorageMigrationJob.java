@@ -0,0 +1,195 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.entity.OrderFile;
+import com.assignmentpoint.repository.FileBlobRepository;
+import com.assignmentpoint.repository.OrderFileRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves files written before the storage backend existed into it, in the background
+ * after startup. Two kinds are handled: blobs in the old unsharded uploads/blobs/
+ * directory, and pre-blob uploads still in the flat upload directory, which become
+ * reference-counted blobs. Each file is moved in its own transaction under the blob
+ * row lock, so uploads and deletes keep working while the job runs.
+ */
+@Slf4j
+@Component
+public class StorageMigrationJob {
+
+    private final OrderFileRepository orderFileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.migration.batch-size:100}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "storage-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean completed = false;
+
+    public StorageMigrationJob(OrderFileRepository orderFileRepository,
+                               FileBlobRepository fileBlobRepository,
+                               FileStorageService fileStorageService,
+                               PlatformTransactionManager transactionManager) {
+        this.orderFileRepository = orderFileRepository;
+        this.fileBlobRepository = fileBlobRepository;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (enabled) {
+            trigger();
+        }
+    }
+
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.submit(() -> {
+            try {
+                long failedBefore = failed.get();
+                migrateLegacyBlobs();
+                if (failed.get() == failedBefore) {
+                    fileStorageService.markLegacyLayoutDrained();
+                }
+                migrateFlatFiles();
+                completed = failed.get() == failedBefore;
+                log.info("Storage migration finished, migrated {}, missing {}, failed {}",
+                        migrated.get(), missing.get(), failed.get());
+            } catch (Exception e) {
+                log.warn("Storage migration failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void migrateLegacyBlobs() {
+        String after = "";
+        List<String> keys;
+        while (!(keys = fileBlobRepository.findKeysAfter(after, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (String sha256 : keys) {
+                if (!Files.exists(fileStorageService.legacyBlobPath(sha256))) {
+                    continue;
+                }
+                try {
+                    Boolean moved = transactionTemplate.execute(status -> fileStorageService.migrateLegacyBlob(sha256));
+                    if (Boolean.TRUE.equals(moved)) {
+                        migrated.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.warn("Migrating blob {} failed: {}", sha256, e.getMessage());
+                }
+            }
+            after = keys.get(keys.size() - 1);
+        }
+    }
+
+    private void migrateFlatFiles() {
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = orderFileRepository.findFlatFileIdsAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    migrateFlatFile(id);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.warn("Migrating file {} failed: {}", id, e.getMessage());
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void migrateFlatFile(Long id) throws IOException {
+        OrderFile snapshot = orderFileRepository.findById(id).orElse(null);
+        if (snapshot == null || Boolean.TRUE.equals(snapshot.getStoredAsBlob())) {
+            return;
+        }
+        String fileUrl = snapshot.getFileUrl();
+        Path path = fileStorageService.loadFile(fileUrl.substring(fileUrl.lastIndexOf('/') + 1));
+        if (!Files.isRegularFile(path)) {
+            missing.incrementAndGet();
+            return;
+        }
+
+        // Hash and stage outside the transaction so no connection is held while reading the file
+        String sha256 = snapshot.getSha256() != null ? snapshot.getSha256() : fileStorageService.sha256(path);
+        FileStorageService.StagedFile staged = fileStorageService.stageExisting(path, sha256);
+
+        Boolean adopted;
+        try {
+            adopted = transactionTemplate.execute(status -> {
+                OrderFile orderFile = orderFileRepository.findById(id).orElse(null);
+                if (orderFile == null || Boolean.TRUE.equals(orderFile.getStoredAsBlob())) {
+                    return false;
+                }
+                fileStorageService.commit(staged);
+                orderFile.setSha256(sha256);
+                orderFile.setFileSize(staged.size());
+                orderFile.setStoredAsBlob(true);
+                orderFileRepository.save(orderFile);
+                return true;
+            });
+        } finally {
+            fileStorageService.discard(staged);
+        }
+
+        if (Boolean.TRUE.equals(adopted)) {
+            Files.deleteIfExists(path);
+            migrated.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backend", fileStorageService.getBackendName());
+        stats.put("running", running.get());
+        stats.put("completed", completed);
+        stats.put("migrated", migrated.get());
+        stats.put("missing", missing.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
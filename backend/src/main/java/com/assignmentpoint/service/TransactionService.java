@@ -29,7 +29,7 @@ public class TransactionService {
                 .map(this::convertToDTO);
     }
 
-    private TransactionDTO convertToDTO(Transaction transaction) {
+    public TransactionDTO convertToDTO(Transaction transaction) {
         return TransactionDTO.builder()
                 .id(transaction.getId())
                 .orderId(transaction.getOrder() != null ? transaction.getOrder().getId() : null)
@@ -0,0 +1,78 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.UserDisplayName;
+import com.assignmentpoint.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "First Last" display names by user id. A chat page names the same two or three people
+ * on every row, so names are looked up once per batch for whichever ids are missing,
+ * then served from memory until the TTL or an explicit invalidate.
+ */
+@Component
+public class UserDisplayNameCache {
+
+    private final UserRepository userRepository;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public UserDisplayNameCache(UserRepository userRepository,
+                                @Value("${users.display-name-cache.max-size:10000}") int maxSize,
+                                @Value("${users.display-name-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Names for all the given ids, loading any misses with a single query. Ids of users
+     * that no longer exist are absent from the result.
+     */
+    public Map<Long, String> getAll(Collection<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        long now = System.nanoTime();
+
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt - now > 0) {
+                names.put(id, entry.name);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            if (entries.size() + missing.size() > maxSize) {
+                entries.clear();
+            }
+            for (UserDisplayName row : userRepository.findDisplayNames(missing)) {
+                String name = row.getFirstName() + " " + row.getLastName();
+                entries.put(row.getId(), new Entry(name, now + ttlNanos));
+                names.put(row.getId(), name);
+            }
+        }
+        return names;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    private record Entry(String name, long expiresAt) {
+    }
+}
@@ -3,8 +3,10 @@ package com.assignmentpoint.service;
 import com.assignmentpoint.entity.User;
 import com.assignmentpoint.exception.ResourceNotFoundException;
 import com.assignmentpoint.repository.UserRepository;
+import com.assignmentpoint.security.UserDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,26 +16,58 @@ import java.util.Collections;
 import java.util.List;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserDisplayNameCache displayNameCache;
+
     // ============================
     // UserDetailsService method
     // ============================
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.singletonList(
-                        new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-                )
-        );
+        UserDetailsCache.CachedUser cached = userDetailsCache.get(email);
+        if (cached == null) {
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+            cached = new UserDetailsCache.CachedUser(
+                    user.getEmail(),
+                    user.getPassword(),
+                    user.getRole().name(),
+                    user.isEnabled());
+            userDetailsCache.put(cached);
+        }
+
+        // Built fresh each time: Spring Security erases the password on instances it has used
+        return org.springframework.security.core.userdetails.User
+                .withUsername(cached.email())
+                .password(cached.passwordHash())
+                .disabled(!cached.active())
+                .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + cached.role())))
+                .build();
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored
+     * hash uses a lower BCrypt cost than the current one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        User user = userRepository.findByEmail(details.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + details.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(details)
+                .password(newPassword)
+                .build();
     }
 
     // ============================
@@ -63,11 +97,16 @@ public class UserService implements UserDetailsService {
         user.setLastName(updatedUser.getLastName());
         user.setPhone(updatedUser.getPhone());
         user.setProfileImageUrl(updatedUser.getProfileImageUrl());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.invalidate(saved.getEmail());
+        displayNameCache.invalidate(saved.getId());
+        return saved;
     }
 
     public void deleteUser(Long id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        userDetailsCache.invalidate(user.getEmail());
+        displayNameCache.invalidate(user.getId());
     }
 }
@@ -7,7 +7,9 @@ import com.assignmentpoint.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserStatsService {
@@ -30,6 +32,9 @@ public class UserStatsService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private OrderStatsService orderStatsService;
+
     public UserStatsDTO getUserStats(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -55,14 +60,10 @@ public class UserStatsService {
     }
 
     private UserStatsDTO getWriterStats(Long userId, UserStatsDTO.UserStatsDTOBuilder builder) {
-        List<Order> writerOrders = orderRepository.findByWriterId(userId);
+        Writer writer = writerRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Writer not found"));
 
-        int available = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.AVAILABLE).count();
-        int inProgress = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.IN_PROGRESS).count();
-        int inReview = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.IN_REVIEW).count();
-        int revision = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.REVISION).count();
-        int disputed = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.DISPUTED).count();
-        int completedPaid = (int) writerOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED).count();
+        Map<Order.OrderStatus, Long> counts = orderStatsService.getCounts(UserOrderStats.PartyType.WRITER, writer.getId());
 
         BigDecimal totalEarnings = transactionRepository.sumAmountByUserIdAndType(userId, Transaction.TransactionType.WRITER_EARNING);
         if (totalEarnings == null) {
@@ -70,14 +71,14 @@ public class UserStatsService {
         }
 
         return builder
-                .available(available)
-                .inProgress(inProgress)
-                .inReview(inReview)
-                .revision(revision)
-                .disputed(disputed)
-                .completedPaid(completedPaid)
+                .available(count(counts, Order.OrderStatus.AVAILABLE))
+                .inProgress(count(counts, Order.OrderStatus.IN_PROGRESS))
+                .inReview(count(counts, Order.OrderStatus.IN_REVIEW))
+                .revision(count(counts, Order.OrderStatus.REVISION))
+                .disputed(count(counts, Order.OrderStatus.DISPUTED))
+                .completedPaid(count(counts, Order.OrderStatus.COMPLETED))
                 .totalEarnings(totalEarnings)
-                .totalOrders(writerOrders.size())
+                .totalOrders(total(counts))
                 .build();
     }
 
@@ -85,24 +86,15 @@ public class UserStatsService {
         Customer customer = customerRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
-        List<Order> customerOrders = orderRepository.findByCustomerId(customer.getId());
-
-        int inProgress = (int) customerOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.IN_PROGRESS).count();
-        int inReview = (int) customerOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.IN_REVIEW).count();
-        int revision = (int) customerOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.REVISION).count();
-        int completedPaid = (int) customerOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED).count();
+        Map<Order.OrderStatus, Long> counts = orderStatsService.getCounts(UserOrderStats.PartyType.CUSTOMER, customer.getId());
 
         BigDecimal totalSpent = customer.getTotalSpent() != null ? customer.getTotalSpent() : BigDecimal.ZERO;
 
         return builder
-                .inProgress(inProgress)
-                .inReview(inReview)
-                .revision(revision)
-                .completedPaid(completedPaid)
+                .inProgress(count(counts, Order.OrderStatus.IN_PROGRESS))
+                .inReview(count(counts, Order.OrderStatus.IN_REVIEW))
+                .revision(count(counts, Order.OrderStatus.REVISION))
+                .completedPaid(count(counts, Order.OrderStatus.COMPLETED))
                 .totalOrders(customer.getTotalOrders())
                 .totalEarnings(totalSpent)
                 .build();
@@ -125,30 +117,24 @@ public class UserStatsService {
     }
 
     private UserStatsDTO getAdminStats(UserStatsDTO.UserStatsDTOBuilder builder) {
-        List<Order> allOrders = orderRepository.findAll();
-        int available = (int) allOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.AVAILABLE).count();
-        int inProgress = (int) allOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.IN_PROGRESS).count();
-        int completedPaid = (int) allOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED).count();
-
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
         BigDecimal totalRevenue = BigDecimal.ZERO;
-        for (Order order : allOrders) {
-            totalRevenue = totalRevenue.add(order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO);
+        for (PlatformOrderRollup rollup : orderStatsService.getPlatformRollup()) {
+            counts.put(rollup.getStatus(), rollup.getOrderCount());
+            totalRevenue = totalRevenue.add(rollup.getTotalAmount());
         }
 
         return builder
-                .available(available)
-                .inProgress(inProgress)
-                .completedPaid(completedPaid)
-                .totalOrders(allOrders.size())
+                .available(count(counts, Order.OrderStatus.AVAILABLE))
+                .inProgress(count(counts, Order.OrderStatus.IN_PROGRESS))
+                .completedPaid(count(counts, Order.OrderStatus.COMPLETED))
+                .totalOrders(total(counts))
                 .totalRevenue(totalRevenue)
                 .build();
     }
 
     private UserStatsDTO getEditorStats(Long userId, UserStatsDTO.UserStatsDTOBuilder builder) {
-        List<Order> editorOrders = orderRepository.findByEditorId(userId);
-
-        int inReview = (int) editorOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.IN_REVIEW).count();
-        int completedPaid = (int) editorOrders.stream().filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED).count();
+        Map<Order.OrderStatus, Long> counts = orderStatsService.getCounts(UserOrderStats.PartyType.EDITOR, userId);
 
         BigDecimal totalEarnings = transactionRepository.sumAmountByUserIdAndType(userId, Transaction.TransactionType.EDITOR_EARNING);
         if (totalEarnings == null) {
@@ -156,13 +142,21 @@ public class UserStatsService {
         }
 
         return builder
-                .inReview(inReview)
-                .completedPaid(completedPaid)
-                .totalOrders(editorOrders.size())
+                .inReview(count(counts, Order.OrderStatus.IN_REVIEW))
+                .completedPaid(count(counts, Order.OrderStatus.COMPLETED))
+                .totalOrders(total(counts))
                 .totalEarnings(totalEarnings)
                 .build();
     }
 
+    private int count(Map<Order.OrderStatus, Long> counts, Order.OrderStatus status) {
+        return counts.getOrDefault(status, 0L).intValue();
+    }
+
+    private int total(Map<Order.OrderStatus, Long> counts) {
+        return (int) counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
     private UserStatsDTO getManagerStats(Long userId, UserStatsDTO.UserStatsDTOBuilder builder) {
         List<Writer> managedWriters = writerRepository.findByWriterManagerId(userId);
         int writersManaged = managedWriters.size();
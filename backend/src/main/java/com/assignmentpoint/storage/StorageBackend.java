@@ -0,0 +1,35 @@
+package com.assignmentpoint.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where blob bytes live. Keys are SHA-256 hex strings, so an object never changes
+ * once written and writing the same key twice stores the same bytes.
+ */
+public interface StorageBackend {
+
+    String name();
+
+    /**
+     * Stores the local file under the key. The source is consumed: it is moved or
+     * deleted once the object is durable.
+     */
+    void store(String key, Path source) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /** Opens length bytes of the object starting at offset. */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * The local file holding the object, so downloads can use sendfile. Null for
+     * remote backends.
+     */
+    default Path localPath(String key) {
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.assignmentpoint.service;
+
+import com.assignmentpoint.dto.OrderDTO;
+import com.assignmentpoint.entity.Customer;
+import com.assignmentpoint.entity.Order;
+import com.assignmentpoint.entity.SalesAgent;
+import com.assignmentpoint.entity.User;
+import com.assignmentpoint.entity.Writer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The order listings must load every row, with customer, writer and their users, in
+ * a single statement and build DTOs without lazy loads.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderService.class, DisputeService.class})
+class OrderListingStatementCountTest {
+
+    private static final int ORDERS_PER_CUSTOMER = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DisputeService disputeService;
+
+    @MockBean
+    private OrderStatsService orderStatsService;
+
+    @MockBean
+    private OptimisticRetryTemplate retryTemplate;
+
+    private Statistics statistics;
+    private Customer customer;
+    private Writer writer;
+
+    @BeforeEach
+    void setUp() {
+        User editor = persistUser("editor@example.com", User.UserRole.EDITOR);
+        User manager = persistUser("manager@example.com", User.UserRole.ADMIN);
+        SalesAgent agent = SalesAgent.builder()
+                .user(persistUser("agent@example.com", User.UserRole.SALES_AGENT))
+                .referralCode("AGENT1")
+                .build();
+        entityManager.persist(agent);
+
+        for (int c = 0; c < 2; c++) {
+            Customer orderCustomer = Customer.builder()
+                    .user(persistUser("customer" + c + "@example.com", User.UserRole.CUSTOMER))
+                    .salesAgent(agent)
+                    .build();
+            entityManager.persist(orderCustomer);
+            Writer orderWriter = Writer.builder()
+                    .user(persistUser("writer" + c + "@example.com", User.UserRole.WRITER))
+                    .writerManager(manager)
+                    .build();
+            entityManager.persist(orderWriter);
+
+            for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+                entityManager.persist(Order.builder()
+                        .orderNumber("ORD-" + c + "-" + i)
+                        .customer(orderCustomer)
+                        .writer(orderWriter)
+                        .editor(editor)
+                        .salesAgent(agent)
+                        .writerManager(manager)
+                        .title("Order " + c + "-" + i)
+                        .pagesOrSlides(1)
+                        .totalAmount(BigDecimal.TEN)
+                        .status(Order.OrderStatus.DISPUTED)
+                        .deadline(LocalDateTime.now().plusDays(3))
+                        .build());
+            }
+            customer = orderCustomer;
+            writer = orderWriter;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrdersUsesOneStatement() {
+        assertSingleStatement(orderService::getAllOrders, 2 * ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getOrdersByCustomerUsesOneStatement() {
+        assertSingleStatement(() -> orderService.getOrdersByCustomer(customer.getId()), ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getOrdersByWriterUsesOneStatement() {
+        assertSingleStatement(() -> orderService.getOrdersByWriter(writer.getId()), ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getActiveDisputesUsesOneStatement() {
+        assertSingleStatement(disputeService::getActiveDisputes, 2 * ORDERS_PER_CUSTOMER);
+    }
+
+    private void assertSingleStatement(Supplier<List<OrderDTO>> listing, int expectedRows) {
+        List<OrderDTO> orders = listing.get();
+
+        assertThat(orders).hasSize(expectedRows);
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getCustomerName()).startsWith("First ");
+            assertThat(order.getWriterName()).startsWith("First ");
+            assertThat(order.getEditorId()).isNotNull();
+            assertThat(order.getSalesAgentId()).isNotNull();
+            assertThat(order.getWriterManagerId()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private User persistUser(String email, User.UserRole role) {
+        User user = User.builder()
+                .email(email)
+                .password("secret")
+                .role(role)
+                .firstName("First " + email)
+                .lastName("Last")
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -272,6 +272,7 @@ create table orders
     deposit_released      tinyint(1)                                                                                                 default 0                 null,
     deposit_amount        decimal(10, 2)                                                                                                                       null,
     payment_status        enum ('NOT_PAID', 'PENDING', 'PAID', 'REFUNDED')                                                           default 'NOT_PAID'        null,
+    version               bigint                                                                                                     default 0                 not null,
     constraint order_number
         unique (order_number),
     constraint FK47row4cse9il6vt7h8ggdowht
@@ -355,14 +356,14 @@ create table messages
         foreign key (receiver_id) references users (id)
 );
 
-create index idx_order
-    on messages (order_id);
+create index idx_order_created_id
+    on messages (order_id, created_at, id);
 
-create index idx_receiver
-    on messages (receiver_id);
+create index idx_receiver_created_id
+    on messages (receiver_id, created_at, id);
 
-create index idx_sender
-    on messages (sender_id);
+create index idx_sender_created_id
+    on messages (sender_id, created_at, id);
 
 create table order_bids
 (
@@ -399,32 +400,43 @@ create index idx_writer
 
 create table order_files
 (
-    id            bigint auto_increment
+    id             bigint auto_increment
         primary key,
-    created_at    datetime(6)          null,
-    updated_at    datetime(6)          null,
-    file_category varchar(255)         null,
-    file_name     varchar(255)         not null,
-    file_size     bigint               null,
-    file_type     varchar(255)         null,
-    file_url      varchar(255)         not null,
-    is_seen       tinyint(1) default 0 null,
-    seen_at       datetime(6)          null,
-    uploaded_at   datetime(6)          null,
-    order_id      bigint               not null,
-    uploaded_by   bigint               not null,
+    created_at     datetime(6)          null,
+    updated_at     datetime(6)          null,
+    file_category  varchar(255)         null,
+    file_name      varchar(255)         not null,
+    file_size      bigint               null,
+    file_type      varchar(255)         null,
+    file_url       varchar(255)         not null,
+    is_seen        tinyint(1) default 0 null,
+    seen_at        datetime(6)          null,
+    sha256         varchar(64)          null,
+    stored_as_blob tinyint(1) default 0 not null,
+    uploaded_at    datetime(6)          null,
+    order_id       bigint               not null,
+    uploaded_by    bigint               not null,
     constraint FKoet3w220mrq9qtfw3u8fhhk5k
         foreign key (uploaded_by) references users (id),
     constraint FKs0kadxgnbahuj84y4o4e6s53g
         foreign key (order_id) references orders (id)
 );
 
+create index idx_file_url
+    on order_files (file_url);
+
 create index idx_customer
     on orders (customer_id);
 
 create index idx_status
     on orders (status);
 
+create index idx_status_created_id
+    on orders (status, created_at, id);
+
+create index idx_status_completed
+    on orders (status, completed_at);
+
 create index idx_writer
     on orders (writer_id);
 
@@ -493,6 +505,9 @@ create table transactions
 create index idx_status
     on transactions (status);
 
+create index idx_status_created
+    on transactions (status, created_at);
+
 create index idx_type
     on transactions (type);
 
@@ -502,3 +517,64 @@ create index idx_user
 create index order_id
     on transactions (order_id);
 
+create table user_order_stats
+(
+    id          bigint auto_increment
+        primary key,
+    party_type  enum ('CUSTOMER', 'WRITER', 'EDITOR')                                                                      not null,
+    party_id    bigint                                                                                                     not null,
+    status      enum ('AVAILABLE', 'PENDING', 'IN_PROGRESS', 'IN_REVIEW', 'REVISION', 'COMPLETED', 'CANCELED', 'DISPUTED') not null,
+    order_count bigint default 0                                                                                           not null,
+    constraint uk_party_status
+        unique (party_type, party_id, status)
+);
+
+create table platform_order_rollup
+(
+    status       enum ('AVAILABLE', 'PENDING', 'IN_PROGRESS', 'IN_REVIEW', 'REVISION', 'COMPLETED', 'CANCELED', 'DISPUTED') not null
+        primary key,
+    order_count  bigint         default 0                                                                                  not null,
+    total_amount decimal(38, 2) default 0.00                                                                               not null
+);
+
+create table message_unread_counts
+(
+    id           bigint auto_increment
+        primary key,
+    user_id      bigint           not null,
+    order_id     bigint           not null,
+    unread_count bigint default 0 not null,
+    constraint uk_user_order
+        unique (user_id, order_id)
+);
+
+create table file_blobs
+(
+    sha256     varchar(64)      not null
+        primary key,
+    size       bigint           not null,
+    crc32      bigint           null,
+    ref_count  bigint default 0 not null,
+    created_at datetime(6)      null
+);
+
+create table upload_sessions
+(
+    id           varchar(36)                  not null
+        primary key,
+    order_id     bigint                       not null,
+    user_id      bigint                       not null,
+    file_name    varchar(255)                 not null,
+    content_type varchar(255)                 null,
+    category     varchar(255)                 null,
+    total_size   bigint                       not null,
+    chunk_size   int                          not null,
+    chunk_count  int                          not null,
+    sha256       varchar(64)                  null,
+    status       enum ('OPEN', 'ASSEMBLING')  not null,
+    created_at   datetime(6)                  null,
+    expires_at   datetime(6)                  not null
+);
+
+create index idx_expires_at
+    on upload_sessions (expires_at);
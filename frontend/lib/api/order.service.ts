@@ -24,12 +24,22 @@ export interface UpdateOrderRequest {
   editorId?: number
 }
 
+export interface OrderFeedPage {
+  orders: Order[]
+  nextCursor: string | null
+  hasMore: boolean
+}
+
 export interface OrderFilters {
   status?: string
   customerId?: number
   writerId?: number
   subject?: string
   educationLevel?: string
+  type?: string
+  deadlineFrom?: string
+  deadlineTo?: string
+  cursor?: string
   page?: number
   size?: number
 }
@@ -144,8 +154,13 @@ export const orderService = {
   },
 
   async getAvailableOrders(filters?: OrderFilters): Promise<Order[]> {
+    const page = await orderService.getAvailableOrdersPage(filters)
+    return page.orders
+  },
+
+  async getAvailableOrdersPage(filters?: OrderFilters): Promise<OrderFeedPage> {
     try {
-      const response = await apiClient.get<ApiResponse<Order[]>>(
+      const response = await apiClient.get<ApiResponse<OrderFeedPage>>(
         "/orders/available",
         { params: filters }
       )